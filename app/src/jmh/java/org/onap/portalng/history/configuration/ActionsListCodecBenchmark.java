@@ -0,0 +1,132 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding and decoding of typical {@code ActionsListResponse} pages in the formats negotiated by
+ * {@link WebFluxCodecConfig}. The throughput of {@code encode} and {@code decode} is compared per
+ * format. The encoded bytes are reported as the secondary result {@code encode:bytes} in bytes per
+ * millisecond, divided by the score of {@code encode} it is the size of the encoded page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActionsListCodecBenchmark {
+
+  @Param({"json", "cbor", "smile"})
+  private String format;
+
+  @Param({"10", "100", "1000"})
+  private int pageSize;
+
+  private ObjectMapper mapper;
+  private ActionsListResponseApiDto page;
+  private byte[] encoded;
+
+  @Setup
+  public void setup() throws Exception {
+    // same configuration as the ObjectMapper bean of BeansConfig
+    var objectMapper = new BeansConfig().objectMapper(Jackson2ObjectMapperBuilder.json());
+    mapper =
+        switch (format) {
+          case "cbor" -> objectMapper.copyWith(new CBORFactory());
+          case "smile" -> objectMapper.copyWith(new SmileFactory());
+          default -> objectMapper;
+        };
+    page = generatePage(objectMapper, pageSize);
+    encoded = mapper.writeValueAsBytes(page);
+  }
+
+  /** Bytes written by {@code encode}, reported by JMH as a secondary result */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class EncodedBytes {
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      bytes = 0;
+    }
+  }
+
+  @Benchmark
+  public byte[] encode(EncodedBytes encodedBytes) throws Exception {
+    var bytes = mapper.writeValueAsBytes(page);
+    encodedBytes.bytes += bytes.length;
+    return bytes;
+  }
+
+  @Benchmark
+  public ActionsListResponseApiDto decode() throws Exception {
+    return mapper.readValue(encoded, ActionsListResponseApiDto.class);
+  }
+
+  /** Page shaped like the portal actions: a handful of short string fields per payload. */
+  private ActionsListResponseApiDto generatePage(ObjectMapper objectMapper, int size) {
+    var random = new Random(42);
+    var createdAt = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    var actions = new ArrayList<ActionResponseApiDto>();
+    for (var i = 0; i < size; i++) {
+      var payload = objectMapper.createObjectNode();
+      payload.put("type", i % 3 == 0 ? "Instantiation" : "Deletion");
+      payload.put("action", i % 3 == 0 ? "create" : "delete");
+      payload.put("message", "Service instance " + Long.toHexString(random.nextLong()));
+      payload.put("downStreamSystem", i % 2 == 0 ? "SO" : "SDC");
+      payload.put("downStreamId", Long.toString(random.nextLong() & Long.MAX_VALUE));
+      actions.add(
+          new ActionResponseApiDto()
+              .actionCreatedAt(createdAt.minusSeconds(i * 37L))
+              .saveInterval(72)
+              .repeatCount(1)
+              .action(payload));
+    }
+    return new ActionsListResponseApiDto().actionsList(actions).totalCount(size);
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Overhead of {@link ReactiveRequestLoggingFilter} per request, compared to the former
+ * implementation that built an {@link EnumMap} and the URL string per request, matched the exclude
+ * paths with an {@link AntPathMatcher}, timed with {@link LocalDateTime} and copied the metadata
+ * into the MDC for every line. Run with the {@code gc} profiler and compare {@code
+ * gc.alloc.rate.norm}, the bytes allocated per request. The log lines go to a no-op appender, so
+ * only the cost of the filter is measured and not the one of encoding and writing the lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+  private static final WebFilterChain CHAIN = exchange -> Mono.empty();
+
+  /** Level of the request loggers, at WARN successful requests are not logged. */
+  @Param({"INFO", "WARN"})
+  private String level;
+
+  @Param({"/v1/actions/user", "/actuator/health"})
+  private String path;
+
+  private ServerWebExchange exchange;
+  private WebFilter filter;
+  private WebFilter legacyFilter;
+
+  @Setup
+  public void setup() {
+    var loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+    var root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+    root.detachAndStopAllAppenders();
+    var appender = new NOPAppender<ILoggingEvent>();
+    appender.setContext(loggerContext);
+    appender.start();
+    root.addAppender(appender);
+    root.setLevel(Level.toLevel(level));
+
+    exchange =
+        MockServerWebExchange.from(
+            MockServerHttpRequest.get("http://localhost:9002" + path + "?page=1&pageSize=10")
+                .header("x-b3-traceid", "463ac35c9f6413ad48485a3953bb6124"));
+    exchange.getResponse().setStatusCode(HttpStatus.OK);
+
+    var loggerProperties =
+        new LoggerProperties(
+            "x-b3-traceid",
+            true,
+            List.of("/actuator/**", "/v3/api-docs/**"),
+            new LoggerProperties.Async(false, 8192, 1024, org.slf4j.event.Level.INFO),
+            new LoggerProperties.Sampling(false, 1.0, Duration.ofSeconds(1), List.of()),
+            false);
+    filter = new ReactiveRequestLoggingFilter(loggerProperties, new SimpleMeterRegistry());
+    legacyFilter = new LegacyRequestLoggingFilter(loggerProperties);
+  }
+
+  @Benchmark
+  public Disposable filter() {
+    return filter.filter(exchange, CHAIN).subscribe();
+  }
+
+  @Benchmark
+  public Disposable legacyFilter() {
+    return legacyFilter.filter(exchange, CHAIN).subscribe();
+  }
+
+  /** The filter as it was before the exclude paths were parsed once and the MDC was dropped. */
+  private static class LegacyRequestLoggingFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyRequestLoggingFilter.class);
+    private static final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final LoggerProperties loggerProperties;
+
+    LegacyRequestLoggingFilter(LoggerProperties loggerProperties) {
+      this.loggerProperties = loggerProperties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+      var path = exchange.getRequest().getPath().value();
+      if (loggerProperties.excludePaths().stream()
+          .anyMatch(pattern -> pathMatcher.match(pattern, path))) {
+        return chain.filter(exchange);
+      }
+
+      var metadata = new EnumMap<LogContextVariable, String>(LogContextVariable.class);
+      var traceIds = exchange.getRequest().getHeaders().get(loggerProperties.traceIdHeaderName());
+      metadata.put(
+          LogContextVariable.TRACE_ID,
+          traceIds != null
+              ? traceIds.stream().findAny().orElse("REQUEST_ID_IS_NOT_SET")
+              : "REQUEST_ID_IS_NOT_SET");
+      metadata.put(LogContextVariable.STATUS, StatusCode.REQUEST.name());
+      metadata.put(
+          LogContextVariable.NORTHBOUND_METHOD, exchange.getRequest().getMethod().name());
+      metadata.put(LogContextVariable.NORTHBOUND_URL, exchange.getRequest().getURI().toString());
+      log(metadata, () -> log.info("RECEIVED"));
+
+      var invocationStart = LocalDateTime.now();
+      return chain
+          .filter(exchange)
+          .doOnTerminate(
+              () -> {
+                metadata.put(LogContextVariable.STATUS, StatusCode.COMPLETE.name());
+                metadata.put(
+                    LogContextVariable.HTTP_STATUS,
+                    String.valueOf(exchange.getResponse().getStatusCode().value()));
+                metadata.put(
+                    LogContextVariable.EXECUTION_TIME,
+                    String.valueOf(
+                        Duration.between(invocationStart, LocalDateTime.now()).toMillis()));
+              })
+          .doOnSuccess(res -> log(metadata, () -> log.info("FINISHED")));
+    }
+
+    private static void log(EnumMap<LogContextVariable, String> metadata, Runnable line) {
+      metadata.forEach((variable, value) -> MDC.put(variable.getVariableName(), value));
+      line.run();
+      MDC.clear();
+    }
+  }
+}
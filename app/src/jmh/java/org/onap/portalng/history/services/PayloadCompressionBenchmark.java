@@ -0,0 +1,145 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+/**
+ * Cost of storing payloads compressed, by payload size. Compare {@code compress} and {@code
+ * serializeCompressed} with {@code serializePlain}: the threshold in {@code
+ * history.payload-compression.threshold} should sit where the CPU spent on deflating and inflating
+ * is small compared to the cost of moving the uncompressed payload through TOAST and the page
+ * queries. {@code compress} reports the bytes it reads and writes as the secondary results {@code
+ * compress:jsonBytes} and {@code compress:compressedBytes}, their ratio is the compression ratio of
+ * the payload size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadCompressionBenchmark {
+
+  @Param({"512", "2048", "8192", "32768", "131072"})
+  private int payloadBytes;
+
+  private ObjectMapper objectMapper;
+  private PayloadCompressor compressor;
+  private JsonNode payload;
+  private byte[] json;
+  private ActionsDao compressedAction;
+
+  @Setup
+  public void setup() throws Exception {
+    objectMapper = new ObjectMapper();
+    var historyConfig =
+        new Binder(
+                new MapConfigurationPropertySource(
+                    Map.of(
+                        "history.save-interval", "72",
+                        "history.payload-compression.enabled", "true",
+                        "history.payload-compression.threshold", "0")))
+            .bind("history", HistoryConfig.class)
+            .get();
+    compressor = new PayloadCompressor(objectMapper, historyConfig, new SimpleMeterRegistry());
+
+    payload = generatePayload(payloadBytes);
+    json = objectMapper.writeValueAsBytes(payload);
+    compressedAction = new ActionsDao();
+    compressedAction.setActionCompressed(compressor.compressIfLarge(json));
+  }
+
+  /** Bytes read and written by {@code compress}, reported by JMH as secondary results */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class CompressedBytes {
+    public long jsonBytes;
+    public long compressedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      jsonBytes = 0;
+      compressedBytes = 0;
+    }
+  }
+
+  @Benchmark
+  public byte[] compress(CompressedBytes compressedBytes) {
+    var compressed = compressor.compressIfLarge(json);
+    compressedBytes.jsonBytes += json.length;
+    compressedBytes.compressedBytes += compressed.length;
+    return compressed;
+  }
+
+  @Benchmark
+  public byte[] serializeCompressed() throws Exception {
+    return objectMapper.writeValueAsBytes(compressor.payloadOf(compressedAction));
+  }
+
+  @Benchmark
+  public byte[] serializePlain() throws Exception {
+    return objectMapper.writeValueAsBytes(payload);
+  }
+
+  /** Payload shaped like the portal actions: repeated keys, URLs and ids with some entropy. */
+  private JsonNode generatePayload(int size) {
+    var random = new Random(42);
+    var root = objectMapper.createObjectNode();
+    root.put("type", "OPEN_APPLICATION");
+    root.put("applicationId", "policy-editor");
+    var entries = root.putArray("entries");
+    var bytes = 0;
+    while (bytes < size) {
+      var entry = entries.addObject();
+      var id = Long.toHexString(random.nextLong());
+      entry.put("id", id);
+      entry.put("url", "https://portal.onap.org/apps/policy-editor/items/" + id);
+      entry.put("title", "Policy " + random.nextInt(10_000));
+      entry.put("visitedAt", 1_700_000_000_000L + random.nextInt(1_000_000));
+      bytes += 150;
+    }
+    return root;
+  }
+}
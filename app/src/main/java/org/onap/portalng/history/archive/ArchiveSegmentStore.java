@@ -0,0 +1,211 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local directory of archive segment files. Segment files are named {@code
+ * actions-<first>-<last>-<run>.ndjson.gz}, where {@code first} and {@code last} are the creation
+ * times (epoch milliseconds) of the oldest and newest action in the segment. Queries use the names
+ * as time index and only open segments that overlap the requested time range.
+ */
+@Component
+public class ArchiveSegmentStore {
+
+  static final String SEGMENT_PREFIX = "actions-";
+  static final String SEGMENT_SUFFIX = ".ndjson.gz";
+  private static final Comparator<ArchivedAction> BY_CREATED_AT =
+      Comparator.comparingLong(ArchivedAction::actionCreatedAt);
+
+  private final HistoryConfig.Archive archiveConfig;
+  private final ObjectMapper objectMapper;
+  private final ObjectReader objectReader;
+
+  public ArchiveSegmentStore(HistoryConfig historyConfig, ObjectMapper objectMapper) {
+    this.archiveConfig = historyConfig.getArchive();
+    this.objectMapper = objectMapper;
+    this.objectReader = objectMapper.readerFor(ArchivedAction.class);
+  }
+
+  /**
+   * Open a writer for a new archive run
+   *
+   * @return writer which has to be committed or closed by the caller
+   */
+  public ArchiveSegmentWriter openWriter() throws IOException {
+    Files.createDirectories(archiveConfig.directory());
+    return new ArchiveSegmentWriter(
+        archiveConfig.directory(),
+        archiveConfig.segmentDuration().toMillis(),
+        System.currentTimeMillis(),
+        objectMapper);
+  }
+
+  /**
+   * Read archived actions in the given time range, newest first
+   *
+   * @param from lower bound (inclusive) of the creation time
+   * @param to upper bound (inclusive) of the creation time
+   * @param userId if present only actions of this user are returned
+   * @param limit maximum number of returned actions
+   * @return archived actions ordered by creation time descending
+   */
+  public List<ArchivedAction> find(Instant from, Instant to, Optional<String> userId, int limit)
+      throws IOException {
+    if (limit <= 0) {
+      return List.of();
+    }
+    var fromMillis = from.toEpochMilli();
+    var toMillis = to.toEpochMilli();
+    // the newest matches of all segments read so far, the oldest of them at the head
+    var newest = new PriorityQueue<>(BY_CREATED_AT);
+    for (var segment : overlappingSegments(fromMillis, toMillis)) {
+      // segments are sorted by their newest action, the remaining ones cannot add a newer action
+      if (newest.size() >= limit && newest.peek().actionCreatedAt() >= segment.last()) {
+        break;
+      }
+      readSegment(
+          segment.path(),
+          action -> {
+            if (action.actionCreatedAt() >= fromMillis
+                && action.actionCreatedAt() <= toMillis
+                && userId.map(action.userId()::equals).orElse(true)) {
+              newest.add(action);
+              if (newest.size() > limit) {
+                newest.poll();
+              }
+            }
+            // segments are written in ascending order, the rest of the segment is too new
+            return action.actionCreatedAt() <= toMillis;
+          });
+    }
+    var result = new ArrayList<>(newest);
+    result.sort(BY_CREATED_AT.reversed());
+    return result;
+  }
+
+  static String segmentName(long firstCreatedAt, long lastCreatedAt, long runId) {
+    return SEGMENT_PREFIX + firstCreatedAt + "-" + lastCreatedAt + "-" + runId + SEGMENT_SUFFIX;
+  }
+
+  private List<Segment> overlappingSegments(long fromMillis, long toMillis) throws IOException {
+    if (!Files.isDirectory(archiveConfig.directory())) {
+      return List.of();
+    }
+    try (var files = Files.list(archiveConfig.directory())) {
+      return files
+          .map(Segment::parse)
+          .flatMap(Optional::stream)
+          .filter(segment -> segment.last() >= fromMillis && segment.first() <= toMillis)
+          .sorted(Comparator.comparingLong(Segment::last).reversed())
+          .toList();
+    }
+  }
+
+  // reads the actions of the segment until the consumer returns false
+  private void readSegment(Path path, Predicate<ArchivedAction> consumer) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      readActions(new GZIPInputStream(new ByteBufferInputStream(mapped), 64 * 1024), consumer);
+    }
+  }
+
+  private void readActions(InputStream in, Predicate<ArchivedAction> consumer)
+      throws IOException {
+    try (in;
+        var actions = objectReader.<ArchivedAction>readValues(in)) {
+      while (actions.hasNextValue()) {
+        if (!consumer.test(actions.nextValue())) {
+          return;
+        }
+      }
+    }
+  }
+
+  private record Segment(Path path, long first, long last) {
+    private static Optional<Segment> parse(Path path) {
+      var name = path.getFileName().toString();
+      if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+        return Optional.empty();
+      }
+      var parts =
+          name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())
+              .split("-");
+      if (parts.length != 3) {
+        return Optional.empty();
+      }
+      try {
+        return Optional.of(new Segment(path, Long.parseLong(parts[0]), Long.parseLong(parts[1])));
+      } catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+    }
+  }
+
+  /** Reads a memory-mapped segment without copying it onto the heap first. */
+  private static final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    private ByteBufferInputStream(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      var count = Math.min(len, buffer.remaining());
+      buffer.get(bytes, off, count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+  }
+}
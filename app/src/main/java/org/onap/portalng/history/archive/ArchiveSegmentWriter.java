@@ -0,0 +1,161 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.archive;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes archived actions into gzip compressed NDJSON segment files. The actions have to be
+ * appended in ascending creation order. Every segment covers one time partition of {@code
+ * segmentMillis} and is named after the creation time of its first and last action, which serves
+ * as the time index when the archive is queried.
+ *
+ * <p>Segments are written to temporary files first. They only become visible under their final
+ * name after {@link #commit()} has flushed them to disk, so a failed archive run never leaves
+ * partial segments behind.
+ */
+public class ArchiveSegmentWriter implements AutoCloseable {
+
+  private final Path directory;
+  private final long segmentMillis;
+  private final long runId;
+  private final ObjectWriter objectWriter;
+  private final List<Path> pendingSegments = new ArrayList<>();
+
+  private OpenSegment current;
+
+  ArchiveSegmentWriter(
+      Path directory, long segmentMillis, long runId, ObjectMapper objectMapper) {
+    this.directory = directory;
+    this.segmentMillis = segmentMillis;
+    this.runId = runId;
+    this.objectWriter =
+        objectMapper
+            .writerFor(ArchivedAction.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
+  /**
+   * Append an action to the segment of its time partition
+   *
+   * @param action the action to archive; must not be older than the previously appended action
+   */
+  public void append(ArchivedAction action) {
+    try {
+      var partition = Math.floorDiv(action.actionCreatedAt(), segmentMillis);
+      if (current != null && current.partition != partition) {
+        finishCurrent();
+      }
+      if (current == null) {
+        current = new OpenSegment(partition, action.actionCreatedAt());
+      }
+      current.write(action);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Action cannot be written to the archive", e);
+    }
+  }
+
+  /**
+   * Flush all written segments to disk and move them to their final name
+   *
+   * @return the committed segment files
+   */
+  public List<Path> commit() throws IOException {
+    finishCurrent();
+    var committed = new ArrayList<Path>(pendingSegments.size());
+    for (var pending : pendingSegments) {
+      var target = pending.resolveSibling(pending.getFileName().toString().replace(".part", ""));
+      committed.add(Files.move(pending, target, StandardCopyOption.ATOMIC_MOVE));
+    }
+    pendingSegments.clear();
+    return committed;
+  }
+
+  /** Discard all segments that have not been committed */
+  @Override
+  public void close() throws IOException {
+    if (current != null) {
+      current.abort();
+      current = null;
+    }
+    for (var pending : pendingSegments) {
+      Files.deleteIfExists(pending);
+    }
+    pendingSegments.clear();
+  }
+
+  private void finishCurrent() throws IOException {
+    if (current != null) {
+      pendingSegments.add(current.finish());
+      current = null;
+    }
+  }
+
+  private final class OpenSegment {
+    private final long partition;
+    private final long firstCreatedAt;
+    private final Path tempFile;
+    private final FileChannel channel;
+    private final GZIPOutputStream out;
+    private long lastCreatedAt;
+
+    private OpenSegment(long partition, long firstCreatedAt) throws IOException {
+      this.partition = partition;
+      this.firstCreatedAt = firstCreatedAt;
+      this.tempFile = Files.createTempFile(directory, ArchiveSegmentStore.SEGMENT_PREFIX, ".part");
+      this.channel = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+      this.out = new GZIPOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+    }
+
+    private void write(ArchivedAction action) throws IOException {
+      objectWriter.writeValue(out, action);
+      out.write('\n');
+      lastCreatedAt = action.actionCreatedAt();
+    }
+
+    private Path finish() throws IOException {
+      out.finish();
+      channel.force(true);
+      out.close();
+      var name = ArchiveSegmentStore.segmentName(firstCreatedAt, lastCreatedAt, runId) + ".part";
+      return Files.move(tempFile, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void abort() throws IOException {
+      out.close();
+      Files.deleteIfExists(tempFile);
+    }
+  }
+}
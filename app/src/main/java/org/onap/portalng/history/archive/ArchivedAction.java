@@ -0,0 +1,33 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.archive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One line of an archive segment file.
+ *
+ * @param userId the id of the user the action belongs to
+ * @param actionCreatedAt creation time of the action in epoch milliseconds
+ * @param action the action payload
+ */
+public record ArchivedAction(String userId, long actionCreatedAt, JsonNode action) {}
@@ -0,0 +1,65 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.configuration;
+
+import javax.sql.DataSource;
+import org.onap.portalng.history.diagnostics.BlockingDetectingDataSource;
+import org.onap.portalng.history.diagnostics.BlockingDetector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Detection of blocking calls on non-blocking threads, see {@link
+ * HistoryConfig.BlockingDetection}. The data source of Spring Boot is wrapped into a {@link
+ * BlockingDetectingDataSource}, next to the wrapper of the slow query capture if enabled.
+ */
+@Configuration
+@ConditionalOnProperty(
+    prefix = "history.blocking-detection",
+    name = "enabled",
+    havingValue = "true")
+public class BlockingDetectionConfig {
+
+  @Bean
+  public BlockingDetector blockingDetector(HistoryConfig historyConfig) {
+    return new BlockingDetector(historyConfig.getBlockingDetection());
+  }
+
+  // static, a bean post processor must not depend on the instance of the configuration
+  @Bean
+  public static BeanPostProcessor blockingDetectingDataSourcePostProcessor(
+      ObjectProvider<BlockingDetector> detector) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource
+            && !(bean instanceof BlockingDetectingDataSource)) {
+          return new BlockingDetectingDataSource(dataSource, detector.getObject());
+        }
+        return bean;
+      }
+    };
+  }
+}
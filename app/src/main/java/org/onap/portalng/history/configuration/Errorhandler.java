@@ -74,8 +74,11 @@ public class Errorhandler implements ErrorWebExceptionHandler {
    * @param ex throwable exception to identify the Problem class
    */
   private void setResponseStatus(ServerHttpResponse httpResponse, Throwable ex) {
-    if (ex instanceof Problem) {
-      httpResponse.setStatusCode(HttpStatus.BAD_REQUEST);
+    if (ex instanceof Problem problem) {
+      httpResponse.setStatusCode(
+          problem.getStatus() == null
+              ? HttpStatus.BAD_REQUEST
+              : HttpStatus.valueOf(problem.getStatus().getStatusCode()));
     } else {
       httpResponse.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
     }
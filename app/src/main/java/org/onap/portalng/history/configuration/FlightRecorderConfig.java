@@ -0,0 +1,48 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.configuration;
+
+import org.onap.portalng.history.diagnostics.FlightRecordingEndpoint;
+import org.onap.portalng.history.diagnostics.FlightRecordings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Flight recordings of the service, see {@link HistoryConfig.FlightRecorder}. The JFR events of the
+ * service are emitted independent of this configuration and are recorded by any recording, e.g.
+ * one started with {@code -XX:StartFlightRecording} or {@code jcmd}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "history.flight-recorder", name = "enabled", havingValue = "true")
+public class FlightRecorderConfig {
+
+  @Bean
+  public FlightRecordings flightRecordings(HistoryConfig historyConfig) {
+    return new FlightRecordings(historyConfig.getFlightRecorder());
+  }
+
+  @Bean
+  public FlightRecordingEndpoint flightRecordingEndpoint(FlightRecordings flightRecordings) {
+    return new FlightRecordingEndpoint(flightRecordings);
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.configuration;
+
+import org.onap.portalng.history.diagnostics.HeavyHittersEndpoint;
+import org.onap.portalng.history.diagnostics.RequestHeavyHitters;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Heavy hitter tracking of the requests, see {@link HistoryConfig.HeavyHitters}. */
+@Configuration
+@ConditionalOnProperty(prefix = "history.heavy-hitters", name = "enabled", havingValue = "true")
+public class HeavyHittersConfig {
+
+  @Bean
+  public RequestHeavyHitters requestHeavyHitters(HistoryConfig historyConfig) {
+    return new RequestHeavyHitters(historyConfig);
+  }
+
+  @Bean
+  public HeavyHittersEndpoint heavyHittersEndpoint(RequestHeavyHitters requestHeavyHitters) {
+    return new HeavyHittersEndpoint(requestHeavyHitters);
+  }
+}
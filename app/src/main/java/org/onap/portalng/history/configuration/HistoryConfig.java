@@ -21,13 +21,376 @@
 
 package org.onap.portalng.history.configuration;
 
+import com.fasterxml.jackson.core.JsonPointer;
 import jakarta.validation.constraints.NotBlank;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 
 @Data
 @ConfigurationProperties("history")
 public class HistoryConfig {
 
   @NotBlank private final Integer saveInterval;
+
+  private final Archive archive;
+  private final Maintenance maintenance;
+  private final PayloadDedup payloadDedup;
+  private final PayloadCompression payloadCompression;
+  private final HotFields hotFields;
+  private final Filter filter;
+  private final Search search;
+  private final RecentDistinct recentDistinct;
+  private final Coalescing coalescing;
+  private final Streaming streaming;
+  private final Export export;
+  private final ResponseBudget responseBudget;
+  private final RequestLimits requestLimits;
+  private final Tracing tracing;
+  private final SlowQueries slowQueries;
+  private final HeavyHitters heavyHitters;
+  private final FlightRecorder flightRecorder;
+  private final BlockingDetection blockingDetection;
+  private final Diagnostics diagnostics;
+
+  public HistoryConfig(
+      Integer saveInterval,
+      @DefaultValue Archive archive,
+      @DefaultValue Maintenance maintenance,
+      @DefaultValue PayloadDedup payloadDedup,
+      @DefaultValue PayloadCompression payloadCompression,
+      @DefaultValue HotFields hotFields,
+      @DefaultValue Filter filter,
+      @DefaultValue Search search,
+      @DefaultValue RecentDistinct recentDistinct,
+      @DefaultValue Coalescing coalescing,
+      @DefaultValue Streaming streaming,
+      @DefaultValue Export export,
+      @DefaultValue ResponseBudget responseBudget,
+      @DefaultValue RequestLimits requestLimits,
+      @DefaultValue Tracing tracing,
+      @DefaultValue SlowQueries slowQueries,
+      @DefaultValue HeavyHitters heavyHitters,
+      @DefaultValue FlightRecorder flightRecorder,
+      @DefaultValue BlockingDetection blockingDetection,
+      @DefaultValue Diagnostics diagnostics) {
+    this.saveInterval = saveInterval;
+    this.archive = archive;
+    this.maintenance = maintenance;
+    this.payloadDedup = payloadDedup;
+    this.payloadCompression = payloadCompression;
+    this.hotFields = hotFields;
+    this.filter = filter;
+    this.search = search;
+    this.recentDistinct = recentDistinct;
+    this.coalescing = coalescing;
+    this.streaming = streaming;
+    this.export = export;
+    this.responseBudget = responseBudget;
+    this.requestLimits = requestLimits;
+    this.tracing = tracing;
+    this.slowQueries = slowQueries;
+    this.heavyHitters = heavyHitters;
+    this.flightRecorder = flightRecorder;
+    this.blockingDetection = blockingDetection;
+    this.diagnostics = diagnostics;
+  }
+
+  /**
+   * Cold-tier archive for expired actions. When enabled, the retention job streams every expired
+   * action into compressed, time-partitioned segment files before it deletes them from the
+   * database.
+   *
+   * @param enabled archive expired actions instead of only deleting them
+   * @param directory directory the segment files are written to
+   * @param segmentDuration time span covered by a single segment file
+   * @param fetchSize number of rows fetched per round trip from the database cursor
+   */
+  public record Archive(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("archive") Path directory,
+      @DefaultValue("1h") Duration segmentDuration,
+      @DefaultValue("1000") int fetchSize) {}
+
+  /**
+   * Table maintenance that follows every retention run. A {@code VACUUM (ANALYZE)} is only issued
+   * when the share of dead tuples in the actions table crosses the thresholds.
+   *
+   * @param enabled run the maintenance after every retention run
+   * @param deadTupleRatio minimum share of dead tuples in the table that triggers a vacuum
+   * @param minDeadTuples minimum absolute number of dead tuples that triggers a vacuum
+   * @param statisticsInterval interval of the table statistics refresh between the retention runs
+   */
+  public record Maintenance(
+      @DefaultValue("true") boolean enabled,
+      @DefaultValue("0.2") double deadTupleRatio,
+      @DefaultValue("10000") long minDeadTuples,
+      @DefaultValue("5m") Duration statisticsInterval) {}
+
+  /**
+   * Content-addressed storage of action payloads. When enabled, payloads are canonicalized, stored
+   * once in the action_payloads table and referenced by their hash from the actions table.
+   *
+   * @param enabled store new payloads deduplicated
+   * @param cacheSize maximum number of payloads kept in the in-memory hash cache
+   */
+  public record PayloadDedup(
+      @DefaultValue("false") boolean enabled, @DefaultValue("10000") int cacheSize) {}
+
+  /**
+   * Compressed storage of large action payloads. Payloads whose JSON representation exceeds the
+   * threshold are stored deflated in a bytea column instead of jsonb and are only inflated while
+   * the response is serialized. Compressed payloads take precedence over deduplication and are
+   * opaque to SQL.
+   *
+   * @param enabled store large payloads compressed
+   * @param threshold minimum size of the JSON representation that is stored compressed. The
+   *     default is derived from {@code PayloadCompressionBenchmark}.
+   * @param level deflate level between 1 (fastest) and 9 (smallest)
+   */
+  public record PayloadCompression(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("8KB") DataSize threshold,
+      @DefaultValue("1") int level) {}
+
+  /**
+   * JSON fields of the action payload that are materialized as generated, indexed columns so that
+   * the list endpoints can filter on them in SQL. The columns are maintained by Liquibase on every
+   * start; adding a field rewrites the actions table once.
+   *
+   * @param paths dot separated paths relative to the payload, e.g. {@code type} or {@code
+   *     target.id}. Payloads stored compressed are not matched.
+   * @param dropUndeclared drop the columns of fields that were removed from the paths, otherwise
+   *     they are kept and only logged
+   */
+  public record HotFields(
+      @DefaultValue List<String> paths, @DefaultValue("false") boolean dropUndeclared) {}
+
+  /**
+   * Guardrails of the ad-hoc payload queries (hot field matches and containment filters), which can
+   * be far less selective than the plain time window queries.
+   *
+   * @param ginIndex create a jsonb_path_ops GIN index on the payloads that backs containment
+   *     filters. Only read by Liquibase, disabling it does not drop an existing index.
+   * @param statementTimeout time after which the database cancels an ad-hoc payload query
+   * @param maxWindow largest time window a containment filter may be applied to
+   */
+  public record Filter(
+      @DefaultValue("false") boolean ginIndex,
+      @DefaultValue("2s") Duration statementTimeout,
+      @DefaultValue("24h") Duration maxWindow) {}
+
+  /**
+   * Full-text search over the action payloads. The text of the selected fields is indexed into a
+   * tsvector column with the {@code simple} configuration, either while the action is inserted or,
+   * when deferred, by a background job that keeps the insert path free of the indexing work.
+   *
+   * @param enabled index new actions and serve the search endpoint
+   * @param fields dot separated payload paths whose text is indexed, all text of the payload if
+   *     empty
+   * @param deferred leave indexing to the background job instead of doing it on insert
+   * @param backfillInterval delay between two runs of the background job
+   * @param backfillBatchSize maximum number of actions indexed per run of the background job
+   * @param maxWindow largest time window a search may cover
+   */
+  public record Search(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue List<String> fields,
+      @DefaultValue("false") boolean deferred,
+      @DefaultValue("30s") Duration backfillInterval,
+      @DefaultValue("500") int backfillBatchSize,
+      @DefaultValue("7d") Duration maxWindow) {}
+
+  /**
+   * Per-user view of the newest action for every distinct value of a payload field, e.g. the
+   * recently used applications. The view is updated on every insert and read with a single index
+   * seek.
+   *
+   * @param keys JSON pointers of the payload fields the view is maintained for, e.g. {@code
+   *     /applicationId}
+   */
+  public record RecentDistinct(@DefaultValue List<String> keys) {
+
+    public RecentDistinct {
+      // fail on startup instead of on every insert
+      keys.forEach(JsonPointer::compile);
+    }
+  }
+
+  /**
+   * Coalescing of repeated identical actions, e.g. page refreshes and double clicks. An action
+   * whose payload equals the last action of the same user within the window updates the timestamp
+   * and the repeat count of that action instead of being inserted. The last action of every user
+   * is kept in memory per instance, so the check needs no query.
+   *
+   * @param enabled coalesce repeated identical actions
+   * @param window maximum time between two actions that are coalesced
+   * @param cacheSize maximum number of users whose last action is kept in memory
+   */
+  public record Coalescing(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("10s") Duration window,
+      @DefaultValue("10000") int cacheSize) {}
+
+  /**
+   * Streaming of large list responses. Pages of at least {@code minPageSize} actions are read
+   * through a database cursor and written to the response row by row instead of being collected
+   * in memory first.
+   *
+   * @param minPageSize smallest page size that is streamed
+   * @param fetchSize number of rows fetched per round trip from the database cursor
+   */
+  public record Streaming(
+      @DefaultValue("500") int minPageSize, @DefaultValue("200") int fetchSize) {}
+
+  /**
+   * Bulk export of a timeframe. Every export reads through a single database cursor and keeps a
+   * pooled connection until it completes.
+   *
+   * @param fetchSize number of rows fetched per round trip from the database cursor
+   * @param maxConcurrent maximum number of exports that run at the same time per instance
+   */
+  public record Export(@DefaultValue("1000") int fetchSize, @DefaultValue("2") int maxConcurrent) {}
+
+  /**
+   * Byte budget of a list page. A page read from the database stops adding actions once the stored
+   * size of their payloads ({@code pg_column_size}) exceeds the budget and returns a cursor to
+   * continue from. Payloads are only read after the page has been cut, so a single huge payload is
+   * never read; it is returned without its payload instead. The stored size of compressed and
+   * TOASTed payloads is smaller than their JSON, size the budget with headroom.
+   *
+   * @param maxBytes budget of the payloads of a page, 0 disables the budget
+   */
+  public record ResponseBudget(@DefaultValue("16MB") DataSize maxBytes) {}
+
+  /**
+   * Limits of request bodies. Both are enforced while the body is still being read, so an
+   * oversized or deeply nested body is rejected before it is buffered completely.
+   *
+   * @param maxBodySize largest accepted request body, larger bodies are rejected with 413
+   * @param maxNestingDepth deepest accepted nesting of JSON objects and arrays (also CBOR and
+   *     Smile), deeper bodies are rejected with 400
+   */
+  public record RequestLimits(
+      @DefaultValue("1MB") DataSize maxBodySize, @DefaultValue("64") int maxNestingDepth) {}
+
+  /**
+   * Adaptive trace sampling. The share {@code management.tracing.sampling.probability} of the
+   * traces is sampled when they start and exported as usual. The spans of all other traces are
+   * recorded and buffered until the local root span ends; the trace is exported if it was slow or
+   * failed and dropped otherwise. Exported spans of both kinds are capped by a rate limit.
+   *
+   * @param adaptive replace the probability sampler with the adaptive one
+   * @param slowThreshold duration of the local root span from which a trace is kept
+   * @param decisionWait time after which the buffered spans of a trace without a root are dropped
+   * @param maxBufferedSpans maximum number of spans buffered for the tail decisions
+   * @param maxSpansPerSecond maximum number of spans exported per second
+   * @param exportInterval interval in which the kept traces are exported
+   */
+  public record Tracing(
+      @DefaultValue("false") boolean adaptive,
+      @DefaultValue("1s") Duration slowThreshold,
+      @DefaultValue("30s") Duration decisionWait,
+      @DefaultValue("10000") int maxBufferedSpans,
+      @DefaultValue("1000") int maxSpansPerSecond,
+      @DefaultValue("1s") Duration exportInterval) {}
+
+  /**
+   * Capture of slow SQL statements. Statements of the application that take at least the threshold
+   * are kept in a ring and aggregated per normalized statement. The plan of the slowest SELECT
+   * statements is captured with {@code EXPLAIN (ANALYZE, BUFFERS)}, at most one plan per explain
+   * interval. All of it is exposed by the {@code slowqueries} actuator endpoint.
+   *
+   * @param enabled record the statements of the application's data source
+   * @param threshold duration from which a statement is recorded
+   * @param capacity number of recent slow statements kept in the ring
+   * @param maxStatements number of distinct normalized statements that are aggregated
+   * @param explainTop number of statements with the highest total duration that are explained, 0
+   *     to disable the plans
+   * @param explainInterval interval in which at most one statement is explained
+   * @param planTtl age after which the plan of a statement is captured again
+   * @param explainTimeout statement timeout of the explain, which executes the statement
+   */
+  public record SlowQueries(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("100ms") Duration threshold,
+      @DefaultValue("500") int capacity,
+      @DefaultValue("200") int maxStatements,
+      @DefaultValue("5") int explainTop,
+      @DefaultValue("1m") Duration explainInterval,
+      @DefaultValue("5m") Duration planTtl,
+      @DefaultValue("5s") Duration explainTimeout) {}
+
+  /**
+   * Heavy hitters of the API, the users and endpoints with the most requests per time window. Every
+   * dimension is counted in a Count-Min sketch and the keys with the highest estimates are kept as
+   * candidates, so the memory does not grow with the number of users.
+   *
+   * @param enabled track the users and endpoints of the requests
+   * @param window length of the time window the requests are counted in
+   * @param width counters per row of the sketch; the estimates exceed the actual count by at most
+   *     e / width of the requests in the window with a probability of 1 - e^-depth
+   * @param depth rows of the sketch
+   * @param capacity number of candidates kept per dimension and window
+   * @param metricsTop number of heavy hitters per dimension published as metrics
+   */
+  public record HeavyHitters(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("1m") Duration window,
+      @DefaultValue("2048") int width,
+      @DefaultValue("4") int depth,
+      @DefaultValue("100") int capacity,
+      @DefaultValue("5") int metricsTop) {}
+
+  /**
+   * Java Flight Recorder recordings of the application events (requests, scheduler hand-offs,
+   * repository calls and JSON encodings) together with the JVM events. Recordings are started,
+   * stopped and downloaded with the {@code flightrecording} actuator endpoint.
+   *
+   * @param enabled provide the actuator endpoint
+   * @param continuous record continuously with the low overhead {@code default} settings, bounded
+   *     by the maximum age and size
+   * @param settings JFR settings of the recordings started on demand, e.g. {@code profile}
+   * @param maxDuration duration after which a recording started on demand stops
+   * @param maxSize maximum size of a recording, older data is discarded first
+   * @param maxAge maximum age of the data of the continuous recording
+   */
+  public record FlightRecorder(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("false") boolean continuous,
+      @DefaultValue("profile") String settings,
+      @DefaultValue("5m") Duration maxDuration,
+      @DefaultValue("100MB") DataSize maxSize,
+      @DefaultValue("1h") Duration maxAge) {}
+
+  /**
+   * Detection of blocking calls on non-blocking threads, i.e. the Netty event loops and the
+   * Reactor {@code parallel} scheduler, which must never wait for the database. JDBC connections
+   * requested on such a thread are caught by the data source, other blocking calls (sleeping,
+   * waiting for a lock or a socket, reading a file) by sampling the stacks of these threads. Every
+   * blocking call is logged with its stack trace and counted in {@code history.blocking.calls}.
+   *
+   * @param enabled detect blocking calls on non-blocking threads
+   * @param fail reject a JDBC connection requested on a non-blocking thread with an exception
+   *     instead of only reporting it, meant for the tests
+   * @param sampleInterval interval the stacks of the non-blocking threads are sampled in, blocking
+   *     calls shorter than that are found by chance only
+   */
+  public record BlockingDetection(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("false") boolean fail,
+      @DefaultValue("100ms") Duration sampleInterval) {}
+
+  /**
+   * Access to the diagnostics actuator endpoints. They expose SQL statements, users and thread
+   * details of the service, so unlike the other actuator endpoints they are not public.
+   *
+   * @param authority authority of the bearer token required for the diagnostics endpoints, the
+   *     scopes of the token are mapped to authorities with the prefix {@code SCOPE_}
+   */
+  public record Diagnostics(@DefaultValue("SCOPE_history.admin") String authority) {}
 }
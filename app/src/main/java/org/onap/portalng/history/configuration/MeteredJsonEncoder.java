@@ -0,0 +1,91 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.onap.portalng.history.diagnostics.JsonEncodingEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+
+/**
+ * JSON encoder that publishes the time spent encoding a response body as {@code history.encode}
+ * and its size as {@code history.encode.size}, tagged with the type of the body, e.g. {@code
+ * ActionsListResponseApiDto}. Every encoding is also emitted as {@link JsonEncodingEvent} to JFR.
+ * Streamed lists are written by {@code ActionsListStream} and are not included.
+ */
+public class MeteredJsonEncoder extends Jackson2JsonEncoder {
+
+  private final MeterRegistry meterRegistry;
+  private final Map<Class<?>, Meters> meters = new ConcurrentHashMap<>();
+
+  public MeteredJsonEncoder(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+    super(objectMapper);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public DataBuffer encodeValue(
+      Object value,
+      DataBufferFactory bufferFactory,
+      ResolvableType valueType,
+      MimeType mimeType,
+      Map<String, Object> hints) {
+    var event = new JsonEncodingEvent();
+    event.begin();
+    var start = System.nanoTime();
+    var buffer = super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+    var typeMeters = meters.computeIfAbsent(valueType.toClass(), this::metersOf);
+    typeMeters.timer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    typeMeters.size().record(buffer.readableByteCount());
+    event.end();
+    if (event.shouldCommit()) {
+      event.type = valueType.toClass().getSimpleName();
+      event.bytes = buffer.readableByteCount();
+      event.commit();
+    }
+    return buffer;
+  }
+
+  private Meters metersOf(Class<?> type) {
+    return new Meters(
+        Timer.builder("history.encode")
+            .description("Encoding of response bodies to JSON")
+            .tag("type", type.getSimpleName())
+            .register(meterRegistry),
+        DistributionSummary.builder("history.encode.size")
+            .description("Size of response bodies encoded to JSON")
+            .baseUnit("bytes")
+            .tag("type", type.getSimpleName())
+            .register(meterRegistry));
+  }
+
+  private record Meters(Timer timer, DistributionSummary size) {}
+}
@@ -0,0 +1,138 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.configuration;
+
+import com.fasterxml.jackson.core.exc.StreamConstraintsException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.onap.portalng.history.exception.ProblemException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Enforce the {@link HistoryConfig.RequestLimits} on request bodies and record their sizes.
+ *
+ * <p>A body whose declared {@code Content-Length} exceeds the limit is rejected before it is read.
+ * Other bodies are limited by the codecs while they are decoded (see {@link WebFluxCodecConfig}),
+ * which report the failure wrapped into a {@code ResponseStatusException}. These failures are
+ * mapped to Problems here, so that {@link Errorhandler} writes them instead of the default handler
+ * of the framework.
+ *
+ * <p>The size of every body that is read is recorded in the {@code history.request.payload}
+ * histogram, tagged with the method and the path pattern of the endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestLimitsFilter implements WebFilter {
+
+  static final String PAYLOAD_METRIC = "history.request.payload";
+
+  private final HistoryConfig historyConfig;
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    var maxBodySize = historyConfig.getRequestLimits().maxBodySize().toBytes();
+    if (exchange.getRequest().getHeaders().getContentLength() > maxBodySize) {
+      return Mono.error(tooLarge(maxBodySize));
+    }
+    var request =
+        new ServerHttpRequestDecorator(exchange.getRequest()) {
+          @Override
+          public Flux<DataBuffer> getBody() {
+            var size = new AtomicLong();
+            return super.getBody()
+                .doOnNext(buffer -> size.addAndGet(buffer.readableByteCount()))
+                .doFinally(signal -> record(exchange, size.get()));
+          }
+        };
+    return chain
+        .filter(exchange.mutate().request(request).build())
+        .onErrorMap(ex -> translate(ex, maxBodySize));
+  }
+
+  /**
+   * Record the size of a request body. The handler is mapped before its body is read, so the
+   * pattern of the endpoint is known at this point.
+   *
+   * @param exchange exchange of the request
+   * @param size number of bytes read from the body, up to the limit for rejected bodies
+   */
+  private void record(ServerWebExchange exchange, long size) {
+    PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    DistributionSummary.builder(PAYLOAD_METRIC)
+        .baseUnit("bytes")
+        .tag("method", exchange.getRequest().getMethod().name())
+        .tag("uri", pattern == null ? "UNKNOWN" : pattern.getPatternString())
+        .publishPercentileHistogram()
+        .maximumExpectedValue((double) historyConfig.getRequestLimits().maxBodySize().toBytes())
+        .register(meterRegistry)
+        .record(size);
+  }
+
+  /**
+   * Translate a request body that exceeded a limit while it was decoded into a Problem.
+   *
+   * @param ex throwable exception raised while handling the request
+   * @param maxBodySize limit of the request body in bytes
+   * @return problem exception for exceeded request limits, the exception itself otherwise
+   */
+  private static Throwable translate(Throwable ex, long maxBodySize) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof DataBufferLimitException) {
+        return tooLarge(maxBodySize);
+      }
+      if (cause instanceof StreamConstraintsException constraints) {
+        return ProblemException.builder()
+            .type(Problem.DEFAULT_TYPE)
+            .status(Status.BAD_REQUEST)
+            .title(HttpStatus.BAD_REQUEST.toString())
+            .detail(constraints.getOriginalMessage())
+            .build();
+      }
+    }
+    return ex;
+  }
+
+  private static ProblemException tooLarge(long maxBodySize) {
+    return ProblemException.builder()
+        .type(Problem.DEFAULT_TYPE)
+        .status(Status.REQUEST_ENTITY_TOO_LARGE)
+        .title(HttpStatus.CONTENT_TOO_LARGE.toString())
+        .detail("Request body exceeds the limit of " + maxBodySize + " bytes")
+        .build();
+  }
+}
@@ -22,7 +22,12 @@
 package org.onap.portalng.history.configuration;
 
 import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.services.ActionPayloadStore;
+import org.onap.portalng.history.services.ActionsMetrics;
 import org.onap.portalng.history.services.ActionsService;
+import org.onap.portalng.history.services.ArchiveService;
+import org.onap.portalng.history.services.SearchIndexer;
+import org.onap.portalng.history.services.TableMaintenanceService;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -33,20 +38,69 @@ import org.springframework.stereotype.Component;
 public class SchedulerConfig {
 
   private final ActionsService actionsService;
+  private final ArchiveService archiveService;
+  private final ActionPayloadStore payloadStore;
+  private final TableMaintenanceService tableMaintenanceService;
+  private final SearchIndexer searchIndexer;
   private final HistoryConfig historyConfig;
+  private final ActionsMetrics actionsMetrics;
 
-  public SchedulerConfig(ActionsService actionsService, HistoryConfig historyConfig) {
+  public SchedulerConfig(
+      ActionsService actionsService,
+      ArchiveService archiveService,
+      ActionPayloadStore payloadStore,
+      TableMaintenanceService tableMaintenanceService,
+      SearchIndexer searchIndexer,
+      HistoryConfig historyConfig,
+      ActionsMetrics actionsMetrics) {
     this.actionsService = actionsService;
+    this.archiveService = archiveService;
+    this.payloadStore = payloadStore;
+    this.tableMaintenanceService = tableMaintenanceService;
+    this.searchIndexer = searchIndexer;
     this.historyConfig = historyConfig;
+    this.actionsMetrics = actionsMetrics;
   }
 
   /**
    * This method will be trigger by Spring Boot scheduler. The cron execution time is configured in
-   * the application properties as well as the save interval.
+   * the application properties as well as the save interval. If the archive is enabled the expired
+   * actions are moved into the archive instead of being dropped. Deduplicated payloads that are no
+   * longer referenced are deleted afterwards. Every run is followed by the table maintenance, which
+   * vacuums the table once the deletes have left enough dead tuples behind. The number of deleted
+   * actions of every run is recorded in {@code history.actions.rows} of the retention.
    */
   @Scheduled(cron = "${history.delete-interval}")
   public void runDeleteActions() {
-    actionsService.deleteActions(historyConfig.getSaveInterval());
-    log.info("Delete actions in scheduled job");
+    var retention =
+        historyConfig.getArchive().enabled()
+            ? archiveService.archiveActions(historyConfig.getSaveInterval())
+            : actionsService.deleteActions(historyConfig.getSaveInterval());
+    var deleted = retention.block();
+    actionsMetrics.recordRows(ActionsMetrics.Operation.RETENTION, deleted == null ? 0 : deleted);
+    log.info("Delete actions in scheduled job, {} actions deleted", deleted);
+    var deletedPayloads = payloadStore.deleteUnreferencedPayloads().block();
+    log.info("Delete unreferenced payloads in scheduled job, {} payloads deleted", deletedPayloads);
+    tableMaintenanceService.afterRetention(deleted == null ? 0 : deleted).block();
+  }
+
+  /** Refresh the table statistics between the retention runs. */
+  @Scheduled(
+      fixedDelayString = "${history.maintenance.statistics-interval:5m}",
+      initialDelayString = "${history.maintenance.statistics-interval:5m}")
+  public void runTableStatistics() {
+    tableMaintenanceService.refresh().block();
+  }
+
+  /**
+   * Build the search vectors of actions inserted while search indexing is deferred. Does nothing
+   * unless search is enabled and deferred.
+   */
+  @Scheduled(fixedDelayString = "${history.search.backfill-interval:30s}")
+  public void runDeferredSearchIndexing() {
+    var indexed = searchIndexer.indexDeferred().block();
+    if (indexed != null && indexed > 0) {
+      log.info("Deferred search indexing in scheduled job, {} actions indexed", indexed);
+    }
   }
 }
@@ -23,12 +23,16 @@ package org.onap.portalng.history.configuration;
 
 import static org.springframework.security.config.Customizer.withDefaults;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
 
 /** Configures the access control of the API endpoints. */
 // https://hantsy.github.io/spring-reactive-sample/security/config.html
@@ -37,7 +41,11 @@ import org.springframework.security.web.server.SecurityWebFilterChain;
 public class SecurityConfig {
 
   @Bean
-  public SecurityWebFilterChain springSecurityWebFilterChain(ServerHttpSecurity http) {
+  public SecurityWebFilterChain springSecurityWebFilterChain(
+      ServerHttpSecurity http,
+      ReactiveJwtDecoder jwtDecoder,
+      MeterRegistry meterRegistry,
+      HistoryConfig historyConfig) {
     return http.httpBasic(basic -> basic.disable())
         .formLogin(login -> login.disable())
         .csrf(csrf -> csrf.disable())
@@ -45,11 +53,36 @@ public class SecurityConfig {
         .authorizeExchange(
             exchange ->
                 exchange
+                    // slow statements may contain query values, heavy hitters the user ids,
+                    // recordings the threads, stacks and heap details of the service
+                    .pathMatchers(
+                        "/actuator/slowqueries/**",
+                        "/actuator/heavyhitters/**",
+                        "/actuator/flightrecording/**")
+                    .hasAuthority(historyConfig.getDiagnostics().authority())
                     .pathMatchers(HttpMethod.GET, "/actuator/**")
                     .permitAll()
                     .anyExchange()
                     .authenticated())
-        .oauth2ResourceServer(oauth2 -> oauth2.jwt(withDefaults()))
+        .oauth2ResourceServer(
+            oauth2 -> oauth2.jwt(jwt -> jwt.jwtDecoder(timed(jwtDecoder, meterRegistry))))
         .build();
   }
+
+  /**
+   * Publish the time spent decoding and validating bearer tokens as {@code history.jwt.decode}.
+   * Includes fetching the signing keys when they are not cached yet.
+   */
+  private static ReactiveJwtDecoder timed(ReactiveJwtDecoder jwtDecoder, MeterRegistry registry) {
+    var timer =
+        Timer.builder("history.jwt.decode")
+            .description("Decoding and validation of bearer tokens")
+            .register(registry);
+    return token ->
+        Mono.defer(
+            () -> {
+              var sample = Timer.start(registry);
+              return jwtDecoder.decode(token).doFinally(signal -> sample.stop(timer));
+            });
+  }
 }
@@ -0,0 +1,79 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.configuration;
+
+import javax.sql.DataSource;
+import org.onap.portalng.history.diagnostics.ExplainPlanCollector;
+import org.onap.portalng.history.diagnostics.SlowQueriesEndpoint;
+import org.onap.portalng.history.diagnostics.SlowQueryDataSource;
+import org.onap.portalng.history.diagnostics.SlowQueryRecorder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Slow query capture, see {@link HistoryConfig.SlowQueries}. The data source of Spring Boot is
+ * wrapped into a {@link SlowQueryDataSource}, Spring Boot unwraps it again for the pool metrics.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "history.slow-queries", name = "enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+  @Bean
+  public SlowQueryRecorder slowQueryRecorder(HistoryConfig historyConfig) {
+    return new SlowQueryRecorder(historyConfig.getSlowQueries());
+  }
+
+  // static, a bean post processor must not depend on the instance of the configuration
+  @Bean
+  public static BeanPostProcessor slowQueryDataSourcePostProcessor(
+      ObjectProvider<SlowQueryRecorder> recorder) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+          return new SlowQueryDataSource(dataSource, recorder.getObject());
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public ExplainPlanCollector explainPlanCollector(
+      DataSource dataSource, SlowQueryRecorder recorder, HistoryConfig historyConfig) {
+    // the plans are captured on the pool itself, past the recording and any other wrapper
+    var target = dataSource;
+    while (target instanceof DelegatingDataSource delegating) {
+      target = delegating.getTargetDataSource();
+    }
+    return new ExplainPlanCollector(target, recorder, historyConfig.getSlowQueries());
+  }
+
+  @Bean
+  public SlowQueriesEndpoint slowQueriesEndpoint(SlowQueryRecorder recorder) {
+    return new SlowQueriesEndpoint(recorder);
+  }
+}
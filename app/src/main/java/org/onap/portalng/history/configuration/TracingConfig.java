@@ -0,0 +1,73 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.onap.portalng.history.tracing.AdaptiveSampler;
+import org.onap.portalng.history.tracing.SpanRateLimiter;
+import org.onap.portalng.history.tracing.TailSamplingSpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Adaptive trace sampling, see {@link HistoryConfig.Tracing}. The sampler replaces the probability
+ * sampler of Spring Boot and keeps {@code management.tracing.sampling.probability} as its baseline.
+ * The tail sampling processor is added next to Spring Boot's batch span processor and exports to
+ * the same exporters. The rate limiter is picked up as span exporting predicate of the batch span
+ * processor.
+ */
+@Configuration
+@ConditionalOnClass(SdkTracerProvider.class)
+@ConditionalOnProperty(prefix = "history.tracing", name = "adaptive", havingValue = "true")
+public class TracingConfig {
+
+  @Bean
+  public Sampler adaptiveSampler(
+      @Value("${management.tracing.sampling.probability:0.1}") double probability) {
+    return new AdaptiveSampler(probability);
+  }
+
+  @Bean
+  public SpanRateLimiter spanRateLimiter(HistoryConfig historyConfig, MeterRegistry meterRegistry) {
+    return new SpanRateLimiter(historyConfig.getTracing().maxSpansPerSecond(), meterRegistry);
+  }
+
+  @Bean
+  public TailSamplingSpanProcessor tailSamplingSpanProcessor(
+      ObjectProvider<SpanExporter> spanExporters,
+      SpanRateLimiter spanRateLimiter,
+      HistoryConfig historyConfig,
+      MeterRegistry meterRegistry) {
+    return new TailSamplingSpanProcessor(
+        SpanExporter.composite(spanExporters.orderedStream().toList()),
+        spanRateLimiter,
+        historyConfig.getTracing(),
+        meterRegistry);
+  }
+}
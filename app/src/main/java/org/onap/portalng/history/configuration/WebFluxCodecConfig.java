@@ -21,12 +21,21 @@
 
 package org.onap.portalng.history.configuration;
 
+import com.fasterxml.jackson.core.StreamReadConstraints;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
-import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
 import org.springframework.web.reactive.config.WebFluxConfigurer;
 
 /**
@@ -35,16 +44,62 @@ import org.springframework.web.reactive.config.WebFluxConfigurer;
  * Jackson 2 {@code ProblemModule}. Pin the WebFlux codec to the Jackson 2 {@link ObjectMapper} bean
  * (built in {@link BeansConfig}) so HTTP (de)serialization stays consistent with the persistence
  * and error-handling layers.
+ *
+ * <p>Service-to-service clients can negotiate CBOR or Smile instead of JSON. Both codecs use copies
+ * of the same mapper, so modules, inclusion rules and features are identical across the encodings.
+ * See {@code ActionsListCodecBenchmark} for the sizes and throughput compared to JSON.
+ *
+ * <p>The decoders enforce the {@link HistoryConfig.RequestLimits}: the body size through the
+ * in-memory limit of the codecs and the nesting depth through the stream read constraints of their
+ * parsers. Both are checked while the body is tokenized, the first buffer beyond a limit fails the
+ * request, see {@link RequestLimitsFilter}.
+ *
+ * <p>The JSON encoder publishes encoding time and size, see {@link MeteredJsonEncoder}.
  */
 @Configuration
 @RequiredArgsConstructor
 public class WebFluxCodecConfig implements WebFluxConfigurer {
 
+  public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+  /** Binary encodings that are negotiated besides JSON. */
+  public static final List<MediaType> BINARY_MEDIA_TYPES =
+      List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
   private final ObjectMapper objectMapper;
+  private final HistoryConfig historyConfig;
+  private final MeterRegistry meterRegistry;
 
   @Override
   public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
-    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
-    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+    var limits = historyConfig.getRequestLimits();
+    var constraints =
+        StreamReadConstraints.builder().maxNestingDepth(limits.maxNestingDepth()).build();
+    var maxInMemorySize = Math.toIntExact(limits.maxBodySize().toBytes());
+    configurer.defaultCodecs().maxInMemorySize(maxInMemorySize);
+
+    // the encoder keeps the shared mapper, the decoder gets a constrained copy
+    var jsonMapper = constrained(objectMapper.copy(), constraints);
+    configurer
+        .defaultCodecs()
+        .jackson2JsonEncoder(new MeteredJsonEncoder(objectMapper, meterRegistry));
+    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(jsonMapper));
+
+    // read constraints do not affect writing, encoder and decoder share the mapper
+    var smileMapper = constrained(objectMapper.copyWith(new SmileFactory()), constraints);
+    configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+    configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+
+    // CBOR is not part of the default codecs
+    var cborMapper = constrained(objectMapper.copyWith(new CBORFactory()), constraints);
+    var cborDecoder = new Jackson2CborDecoder(cborMapper);
+    cborDecoder.setMaxInMemorySize(maxInMemorySize);
+    configurer.customCodecs().register(new Jackson2CborEncoder(cborMapper));
+    configurer.customCodecs().register(cborDecoder);
+  }
+
+  private static ObjectMapper constrained(ObjectMapper mapper, StreamReadConstraints constraints) {
+    mapper.getFactory().setStreamReadConstraints(constraints);
+    return mapper;
   }
 }
@@ -21,17 +21,23 @@
 
 package org.onap.portalng.history.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
 import java.util.Optional;
 import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.configuration.WebFluxCodecConfig;
 import org.onap.portalng.history.openapi.api.ActionsApi;
 import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
 import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
 import org.onap.portalng.history.openapi.model.CreateActionRequestApiDto;
 import org.onap.portalng.history.services.ActionsService;
+import org.onap.portalng.history.util.ActionsListStream;
 import org.onap.portalng.history.util.IdTokenExchange;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -39,10 +45,13 @@ public class ActionsController implements ActionsApi {
 
   private final ActionsService actionsService;
   private final HistoryConfig historyConfig;
+  private final ObjectMapper objectMapper;
 
-  public ActionsController(ActionsService actionsService, HistoryConfig historyConfig) {
+  public ActionsController(
+      ActionsService actionsService, HistoryConfig historyConfig, ObjectMapper objectMapper) {
     this.actionsService = actionsService;
     this.historyConfig = historyConfig;
+    this.objectMapper = objectMapper;
   }
 
   @Override
@@ -76,8 +85,29 @@ public class ActionsController implements ActionsApi {
       Optional<Integer> page,
       Optional<Integer> pageSize,
       Optional<Integer> showLastHours,
+      Optional<List<String>> match,
+      Optional<String> filter,
+      Optional<List<String>> fields,
+      Optional<String> cursor,
       ServerWebExchange exchange) {
 
+    if (isStreamed(pageSize, exchange)) {
+      return IdTokenExchange.extractUserId(exchange)
+          .flatMap(
+              userId ->
+                  writeStreamed(
+                      exchange,
+                      actionsService.streamActions(
+                          userId,
+                          page.orElse(1),
+                          pageSize.get(),
+                          showLastHours.orElse(historyConfig.getSaveInterval()),
+                          match.orElse(List.of()),
+                          filter.orElse(null),
+                          fields.orElse(List.of()),
+                          cursor.orElse(null),
+                          historyConfig.getSaveInterval())));
+    }
     return IdTokenExchange.extractUserId(exchange)
         .flatMap(
             userId ->
@@ -86,23 +116,94 @@ public class ActionsController implements ActionsApi {
                     page.orElse(1),
                     pageSize.orElse(10),
                     showLastHours.orElse(historyConfig.getSaveInterval()),
+                    match.orElse(List.of()),
+                    filter.orElse(null),
+                    fields.orElse(List.of()),
+                    cursor.orElse(null),
                     historyConfig.getSaveInterval()))
         .map(ResponseEntity::ok);
   }
 
+  @Override
+  public Mono<ResponseEntity<ActionsListResponseApiDto>> getRecentDistinctActions(
+      String userIdUnused, String key, Optional<Integer> limit, ServerWebExchange exchange) {
+
+    return IdTokenExchange.extractUserId(exchange)
+        .flatMap(
+            userId ->
+                actionsService.getRecentDistinctActions(
+                    userId, key, limit.orElse(10), historyConfig.getSaveInterval()))
+        .map(ResponseEntity::ok);
+  }
+
   @Override
   public Mono<ResponseEntity<ActionsListResponseApiDto>> listActions(
       Optional<Integer> page,
       Optional<Integer> pageSize,
       Optional<Integer> showLastHours,
+      Optional<List<String>> match,
+      Optional<String> filter,
+      Optional<List<String>> fields,
+      Optional<String> cursor,
       ServerWebExchange exchange) {
 
+    if (isStreamed(pageSize, exchange)) {
+      return writeStreamed(
+          exchange,
+          actionsService.streamActions(
+              null,
+              page.orElse(1),
+              pageSize.get(),
+              showLastHours.orElse(historyConfig.getSaveInterval()),
+              match.orElse(List.of()),
+              filter.orElse(null),
+              fields.orElse(List.of()),
+              cursor.orElse(null),
+              historyConfig.getSaveInterval()));
+    }
+
     return actionsService
         .listActions(
             page.orElse(1),
             pageSize.orElse(10),
             showLastHours.orElse(historyConfig.getSaveInterval()),
+            match.orElse(List.of()),
+            filter.orElse(null),
+            fields.orElse(List.of()),
+            cursor.orElse(null),
             historyConfig.getSaveInterval())
         .map(ResponseEntity::ok);
   }
+
+  /** Large pages are streamed, unless the client asks for one of the binary encodings. */
+  private boolean isStreamed(Optional<Integer> pageSize, ServerWebExchange exchange) {
+    var binary =
+        exchange.getRequest().getHeaders().getAccept().stream()
+            .anyMatch(
+                accepted ->
+                    WebFluxCodecConfig.BINARY_MEDIA_TYPES.stream()
+                        .anyMatch(accepted::equalsTypeAndSubtype));
+    return !binary
+        && pageSize.filter(size -> size >= historyConfig.getStreaming().minPageSize()).isPresent();
+  }
+
+  /**
+   * Write the actions to the response as they are read. The response is complete once the
+   * returned Mono completes, it does not emit a response entity.
+   */
+  private Mono<ResponseEntity<ActionsListResponseApiDto>> writeStreamed(
+      ServerWebExchange exchange, Flux<ActionResponseApiDto> actions) {
+    var response = exchange.getResponse();
+    var body =
+        ActionsListStream.encode(actions, objectMapper, response.bufferFactory())
+            .switchOnFirst(
+                (first, buffers) -> {
+                  // an error before the first element is written by the error handler instead
+                  if (!first.isOnError()) {
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                  }
+                  return buffers;
+                });
+    return response.writeWith(body).then(Mono.empty());
+  }
 }
@@ -0,0 +1,116 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.controller;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.exception.ProblemException;
+import org.onap.portalng.history.openapi.api.ExportApi;
+import org.onap.portalng.history.services.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class ExportController implements ExportApi {
+
+  private final ExportService exportService;
+  private final HistoryConfig historyConfig;
+
+  public ExportController(ExportService exportService, HistoryConfig historyConfig) {
+    this.exportService = exportService;
+    this.historyConfig = historyConfig;
+  }
+
+  @Override
+  public Mono<ResponseEntity<String>> exportActions(
+      OffsetDateTime from,
+      Optional<OffsetDateTime> to,
+      Optional<String> userId,
+      Optional<String> format,
+      ServerWebExchange exchange) {
+
+    ExportService.Format exportFormat;
+    try {
+      exportFormat = ExportService.Format.of(format.orElse("ndjson"));
+    } catch (ProblemException ex) {
+      return Mono.error(ex);
+    }
+    var gzip = acceptsGzip(exchange);
+    var response = exchange.getResponse();
+    var body =
+        exportService
+            .exportActions(
+                from,
+                to.orElseGet(OffsetDateTime::now),
+                userId,
+                exportFormat,
+                gzip,
+                historyConfig.getSaveInterval(),
+                response.bufferFactory())
+            .switchOnFirst(
+                (first, buffers) -> {
+                  // an error before the first buffer is written by the error handler instead
+                  if (!first.isOnError()) {
+                    var headers = response.getHeaders();
+                    headers.setContentType(MediaType.parseMediaType(exportFormat.mediaType()));
+                    headers.setContentDisposition(
+                        ContentDisposition.attachment()
+                            .filename("actions." + exportFormat.name().toLowerCase())
+                            .build());
+                    if (gzip) {
+                      headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                  }
+                  return buffers;
+                });
+    return response.writeWith(body).then(Mono.empty());
+  }
+
+  private boolean acceptsGzip(ServerWebExchange exchange) {
+    return exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING).stream()
+        .flatMap(value -> Arrays.stream(value.split(",")))
+        .map(coding -> coding.trim().toLowerCase().split(";"))
+        .anyMatch(coding -> coding[0].trim().equals("gzip") && qualityOf(coding) > 0);
+  }
+
+  // quality of a content coding split at its parameters, 1 unless the q parameter says otherwise
+  private static double qualityOf(String[] coding) {
+    for (var i = 1; i < coding.length; i++) {
+      var parameter = coding[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.controller;
+
+import java.util.Optional;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.openapi.api.SearchApi;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.services.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@RestController
+public class SearchController implements SearchApi {
+
+  private final SearchService searchService;
+  private final HistoryConfig historyConfig;
+
+  public SearchController(SearchService searchService, HistoryConfig historyConfig) {
+    this.searchService = searchService;
+    this.historyConfig = historyConfig;
+  }
+
+  @Override
+  public Mono<ResponseEntity<ActionsListResponseApiDto>> searchActions(
+      String q,
+      Optional<String> userId,
+      Optional<Integer> showLastHours,
+      Optional<Integer> pageSize,
+      Optional<String> cursor,
+      ServerWebExchange exchange) {
+
+    return searchService
+        .searchActions(
+            q,
+            userId,
+            showLastHours.orElse(historyConfig.getSaveInterval()),
+            pageSize.orElse(10),
+            cursor,
+            historyConfig.getSaveInterval())
+        .map(ResponseEntity::ok);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that hands every connection request to the {@link BlockingDetector} before it is
+ * passed on. All database access of Hibernate, the {@code JdbcTemplate} queries and the cursors
+ * starts with a connection, so a call that was not moved to a blocking thread is caught here.
+ */
+public class BlockingDetectingDataSource extends DelegatingDataSource {
+
+  private final BlockingDetector detector;
+
+  public BlockingDetectingDataSource(DataSource targetDataSource, BlockingDetector detector) {
+    super(targetDataSource);
+    this.detector = detector;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    detector.checkConnection();
+    return obtainTargetDataSource().getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    detector.checkConnection();
+    return obtainTargetDataSource().getConnection(username, password);
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Detects blocking calls on non-blocking threads, which are the Netty event loops and the threads
+ * of the Reactor {@code parallel} scheduler. A single repository call without {@code
+ * subscribeOn(Schedulers.boundedElastic())} blocks an event loop and all requests it serves.
+ *
+ * <p>JDBC connections are checked when they are requested, see {@link
+ * BlockingDetectingDataSource}, which catches every database call at its source. All other blocking
+ * calls (sleeping, parking on a lock, waiting on a monitor, socket or file I/O) are found by
+ * sampling the stacks of the non-blocking threads; a thread that is still blocked in the same
+ * place at the next sample is reported once. Every blocking call is logged with its stack trace
+ * and counted in {@code history.blocking.calls}, tagged with the detection.
+ */
+@Slf4j
+public class BlockingDetector implements MeterBinder {
+
+  /** How a blocking call was detected */
+  public enum Detection {
+    /** a JDBC connection was requested */
+    JDBC,
+    /** the stack of the thread was sampled in a blocking call */
+    SAMPLING
+  }
+
+  // only the top frames are checked, a blocking call further down the stack has returned already
+  private static final int TOP_FRAMES = 6;
+
+  private static final Map<String, Set<String>> BLOCKING_METHODS =
+      Map.of(
+          "java.lang.Thread", Set.of("sleep", "sleep0", "sleepNanos", "sleepNanos0", "join"),
+          "java.lang.Object", Set.of("wait", "wait0"),
+          "jdk.internal.misc.Unsafe", Set.of("park"),
+          "sun.nio.ch.NioSocketImpl",
+              Set.of("read", "write", "connect", "accept", "park", "timedRead", "timedAccept"),
+          "java.io.FileInputStream", Set.of("read", "read0", "readBytes"),
+          "java.io.FileOutputStream", Set.of("write", "writeBytes"),
+          "java.io.RandomAccessFile", Set.of("read", "read0", "readBytes", "write", "writeBytes"));
+
+  // idle worker threads park while they wait for their next task, which is not a blocking call
+  private static final Set<String> IDLE_METHODS =
+      Set.of(
+          "java.util.concurrent.ThreadPoolExecutor.getTask",
+          "java.util.concurrent.ForkJoinPool.awaitWork",
+          "io.netty.util.concurrent.SingleThreadEventExecutor.takeTask");
+
+  private final boolean fail;
+  private final Map<Detection, LongAdder> calls = new EnumMap<>(Detection.class);
+  // blocking frame per thread at the last sample, only touched by the sampling
+  private Map<Thread, StackTraceElement> blocked = Map.of();
+
+  public BlockingDetector(HistoryConfig.BlockingDetection config) {
+    this.fail = config.fail();
+    for (var detection : Detection.values()) {
+      calls.put(detection, new LongAdder());
+    }
+  }
+
+  /**
+   * Check that the current thread may block on a JDBC connection
+   *
+   * @throws IllegalStateException on a non-blocking thread if the detection fails blocking calls
+   */
+  public void checkConnection() {
+    if (!Schedulers.isInNonBlockingThread()) {
+      return;
+    }
+    var thread = Thread.currentThread();
+    var call =
+        new IllegalStateException(
+            "JDBC connection requested on non-blocking thread " + thread.getName());
+    report(Detection.JDBC, thread, call);
+    if (fail) {
+      throw call;
+    }
+  }
+
+  /** Sample the stacks of the non-blocking threads and report the ones in a blocking call. */
+  @Scheduled(fixedDelayString = "${history.blocking-detection.sample-interval:100ms}")
+  public void sample() {
+    var sampled = new HashMap<Thread, StackTraceElement>();
+    Thread.getAllStackTraces()
+        .forEach(
+            (thread, stack) -> {
+              if (!Schedulers.isNonBlockingThread(thread)) {
+                return;
+              }
+              var frame = blockingFrame(stack);
+              if (frame == null) {
+                return;
+              }
+              sampled.put(thread, frame);
+              if (!frame.equals(blocked.get(thread))) {
+                var call =
+                    new IllegalStateException(
+                        "Blocking call "
+                            + frame.getClassName()
+                            + "."
+                            + frame.getMethodName()
+                            + " on non-blocking thread "
+                            + thread.getName());
+                call.setStackTrace(stack);
+                report(Detection.SAMPLING, thread, call);
+              }
+            });
+    blocked = sampled;
+  }
+
+  /** Number of blocking calls detected so far */
+  public long calls(Detection detection) {
+    return calls.get(detection).sum();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    calls.forEach(
+        (detection, count) ->
+            FunctionCounter.builder("history.blocking.calls", count, LongAdder::sum)
+                .description("Blocking calls detected on non-blocking threads")
+                .tag("detection", detection.name().toLowerCase())
+                .register(registry));
+  }
+
+  /** The blocking call at the top of the stack, null if the thread does not block */
+  static StackTraceElement blockingFrame(StackTraceElement[] stack) {
+    for (var frame : stack) {
+      if (IDLE_METHODS.contains(frame.getClassName() + "." + frame.getMethodName())) {
+        return null;
+      }
+    }
+    for (var i = 0; i < Math.min(stack.length, TOP_FRAMES); i++) {
+      var methods = BLOCKING_METHODS.get(stack[i].getClassName());
+      if (methods != null && methods.contains(stack[i].getMethodName())) {
+        return stack[i];
+      }
+    }
+    return null;
+  }
+
+  private void report(Detection detection, Thread thread, IllegalStateException call) {
+    calls.get(detection).increment();
+    log.warn("Blocking call detected on non-blocking thread {}", thread.getName(), call);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch of a fixed number of counters. Adding a key increments one counter per row and
+ * the estimate is the smallest of them, so it never underestimates and overestimates by the
+ * collisions of the key only. The counters are updated lock-free.
+ */
+class CountMinSketch {
+
+  private final int width;
+  private final int depth;
+  private final AtomicLongArray counters;
+
+  CountMinSketch(int width, int depth) {
+    this.width = width;
+    this.depth = depth;
+    this.counters = new AtomicLongArray(width * depth);
+  }
+
+  /**
+   * Count a key
+   *
+   * @param hash 64 bit hash of the key, see {@link #hash(String)}
+   * @return the estimated count of the key including this one
+   */
+  long add(long hash) {
+    var estimate = Long.MAX_VALUE;
+    for (var row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+    }
+    return estimate;
+  }
+
+  long estimate(long hash) {
+    var estimate = Long.MAX_VALUE;
+    for (var row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, counters.get(index(hash, row)));
+    }
+    return estimate;
+  }
+
+  // the rows are indexed by double hashing of the two halves of the hash
+  private int index(long hash, int row) {
+    var combined = (int) hash + row * ((int) (hash >>> 32) | 1);
+    return row * width + Math.floorMod(combined, width);
+  }
+
+  /** 64 bit FNV-1a hash of the key with the finalizer of SplitMix64 */
+  static long hash(String key) {
+    var hash = 0xcbf29ce484222325L;
+    for (var i = 0; i < key.length(); i++) {
+      hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+    }
+    hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+    return hash ^ (hash >>> 31);
+  }
+}
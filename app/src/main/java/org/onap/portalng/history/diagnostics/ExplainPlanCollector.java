@@ -0,0 +1,122 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Captures the plans of the slowest statements with {@code EXPLAIN (ANALYZE, BUFFERS)}. The
+ * explain executes the statement once more, so it is rate limited to one statement per explain
+ * interval and runs in a read-only transaction that is rolled back, with its own statement
+ * timeout. The statements are explained on the target data source and are not recorded
+ * themselves.
+ *
+ * <p>The statement is explained with the parameters of its last execution, which the planner
+ * prints as literals into the conditions of the plan. Literals in the condition lines are replaced
+ * by {@code ?}, so the plans expose no more of the parameters than the recorded statements.
+ */
+@Slf4j
+public class ExplainPlanCollector {
+
+  // lines of a plan node that print expressions of the statement, e.g. "Index Cond: (...)"
+  private static final Pattern CONDITION_LINE =
+      Pattern.compile(
+          "^\\s*(?:Index Cond|Recheck Cond|Filter|Join Filter|Hash Cond|Merge Cond"
+              + "|One-Time Filter|TID Cond|Order By|Cache Key|Run Condition):.*");
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMERIC_LITERAL =
+      Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+  private final DataSource dataSource;
+  private final SlowQueryRecorder recorder;
+  private final HistoryConfig.SlowQueries config;
+
+  public ExplainPlanCollector(
+      DataSource dataSource, SlowQueryRecorder recorder, HistoryConfig.SlowQueries config) {
+    this.dataSource = dataSource;
+    this.recorder = recorder;
+    this.config = config;
+  }
+
+  /** Explain the first statement among the top ones whose plan is missing or outdated. */
+  @Scheduled(fixedDelayString = "${history.slow-queries.explain-interval:1m}")
+  public void explainTopStatement() {
+    if (config.explainTop() <= 0) {
+      return;
+    }
+    var explainable = recorder.explainable(config.explainTop(), config.planTtl());
+    if (explainable == null) {
+      return;
+    }
+    try {
+      recorder.explained(explainable.key(), explain(explainable));
+    } catch (SQLException e) {
+      // keep the old plan, the statement is due again in the next interval
+      log.warn("Explain of slow statement failed: {}", e.getMessage());
+    }
+  }
+
+  private List<String> explain(SlowQueryRecorder.Explainable explainable) throws SQLException {
+    try (var connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      connection.setReadOnly(true);
+      try {
+        try (var statement = connection.createStatement()) {
+          statement.execute(
+              "SET LOCAL statement_timeout = " + config.explainTimeout().toMillis());
+        }
+        try (var statement =
+            connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + explainable.sql())) {
+          var parameters = explainable.parameters();
+          for (var i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+          }
+          var lines = new ArrayList<String>();
+          try (var resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+              lines.add(scrub(resultSet.getString(1)));
+            }
+          }
+          return lines;
+        }
+      } finally {
+        connection.rollback();
+      }
+    }
+  }
+
+  /** Replace the string and numeric literals of a condition line of a plan by {@code ?} */
+  static String scrub(String line) {
+    if (!CONDITION_LINE.matcher(line).matches()) {
+      return line;
+    }
+    var strings = STRING_LITERAL.matcher(line).replaceAll("'?'");
+    return NUMERIC_LITERAL.matcher(strings).replaceAll("?");
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Actuator endpoint {@code /actuator/flightrecording} of the {@link FlightRecordings}:
+ *
+ * <ul>
+ *   <li>{@code GET /actuator/flightrecording}: state of the recordings
+ *   <li>{@code POST /actuator/flightrecording/start} and {@code .../stop}: start and stop the
+ *       recording on demand
+ *   <li>{@code GET /actuator/flightrecording/on-demand} and {@code .../continuous}: download a
+ *       snapshot of the recording, to be opened with JDK Mission Control or {@code jfr print}
+ * </ul>
+ */
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+  private final FlightRecordings flightRecordings;
+
+  public FlightRecordingEndpoint(FlightRecordings flightRecordings) {
+    this.flightRecordings = flightRecordings;
+  }
+
+  @ReadOperation
+  public List<FlightRecordings.Status> recordings() {
+    return flightRecordings.recordings();
+  }
+
+  @WriteOperation
+  public FlightRecordings.Status control(@Selector String action) {
+    return switch (action) {
+      case "start" -> flightRecordings.startRecording();
+      case "stop" -> flightRecordings.stopRecording();
+      default ->
+          throw new InvalidEndpointRequestException(
+              "Unknown action " + action, "Unknown action, expected start or stop");
+    };
+  }
+
+  @ReadOperation(produces = "application/octet-stream")
+  public Resource download(@Selector String recording) throws IOException {
+    var file = flightRecordings.dump(recording);
+    return file == null ? null : new TemporaryFileResource(file);
+  }
+
+  /**
+   * File that is deleted once it has been read. Not reported as file, so that it is not sent with
+   * zero-copy, which bypasses the channel.
+   */
+  private static final class TemporaryFileResource extends FileSystemResource {
+
+    private TemporaryFileResource(Path file) {
+      super(file);
+    }
+
+    @Override
+    public boolean isFile() {
+      return false;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+      return new FilterInputStream(super.getInputStream()) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            deleteFile();
+          }
+        }
+      };
+    }
+
+    @Override
+    public ReadableByteChannel readableChannel() throws IOException {
+      var channel = super.readableChannel();
+      return new ReadableByteChannel() {
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+          return channel.read(dst);
+        }
+
+        @Override
+        public boolean isOpen() {
+          return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+          try {
+            channel.close();
+          } finally {
+            deleteFile();
+          }
+        }
+      };
+    }
+
+    private void deleteFile() throws IOException {
+      Files.deleteIfExists(getFile().toPath());
+    }
+  }
+}
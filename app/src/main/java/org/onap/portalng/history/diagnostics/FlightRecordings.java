@@ -0,0 +1,211 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Manages the flight recordings of the service: the optional continuous recording, which runs from
+ * start to shutdown, and one recording that is started and stopped on demand. Both are kept on disk
+ * in the JFR repository and are bounded by {@link HistoryConfig.FlightRecorder}. A recording is
+ * downloaded as a snapshot dumped into a temporary file.
+ */
+@Slf4j
+public class FlightRecordings implements SmartLifecycle {
+
+  public static final String CONTINUOUS = "continuous";
+  public static final String ON_DEMAND = "on-demand";
+
+  // the settings of JFR with an overhead of about 1%, meant for continuous recordings
+  private static final String CONTINUOUS_SETTINGS = "default";
+
+  // events that record the environment variables and system properties, including the secrets
+  private static final List<String> SECRET_EVENTS =
+      List.of("jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty");
+
+  private final HistoryConfig.FlightRecorder config;
+  private final Map<String, String> settings;
+  private Recording continuous;
+  private Recording onDemand;
+  private boolean running;
+
+  public FlightRecordings(HistoryConfig.FlightRecorder config) {
+    this.config = config;
+    this.settings = configuration(config.settings());
+  }
+
+  /**
+   * State of a recording
+   *
+   * @param state state of the recording, see {@link RecordingState}
+   * @param size bytes the recording has written to disk
+   */
+  public record Status(
+      String name,
+      String settings,
+      String state,
+      Instant startTime,
+      Duration duration,
+      long size) {}
+
+  @Override
+  public synchronized void start() {
+    running = true;
+    if (config.continuous()) {
+      continuous = new Recording(configuration(CONTINUOUS_SETTINGS));
+      continuous.setName("history-" + CONTINUOUS);
+      continuous.setMaxAge(config.maxAge());
+      continuous.setMaxSize(config.maxSize().toBytes());
+      continuous.setToDisk(true);
+      continuous.start();
+      log.info("Continuous flight recording started");
+    }
+  }
+
+  @Override
+  public synchronized void stop() {
+    running = false;
+    if (continuous != null) {
+      continuous.close();
+      continuous = null;
+    }
+    if (onDemand != null) {
+      onDemand.close();
+      onDemand = null;
+    }
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return running;
+  }
+
+  /** Start a recording on demand, unless one is running already. */
+  public synchronized Status startRecording() {
+    if (onDemand != null && onDemand.getState() == RecordingState.RUNNING) {
+      return status(ON_DEMAND, onDemand);
+    }
+    if (onDemand != null) {
+      onDemand.close();
+    }
+    onDemand = new Recording(settings);
+    onDemand.setName("history-" + ON_DEMAND);
+    onDemand.setDuration(config.maxDuration());
+    onDemand.setMaxSize(config.maxSize().toBytes());
+    onDemand.setToDisk(true);
+    onDemand.start();
+    log.info("Flight recording started on demand with the {} settings", config.settings());
+    return status(ON_DEMAND, onDemand);
+  }
+
+  /**
+   * Stop the recording started on demand. It is kept for the download until the next one starts.
+   *
+   * @return the stopped recording, null if there is none
+   */
+  public synchronized Status stopRecording() {
+    if (onDemand == null) {
+      return null;
+    }
+    if (onDemand.getState() == RecordingState.RUNNING) {
+      onDemand.stop();
+      log.info("Flight recording stopped on demand");
+    }
+    return status(ON_DEMAND, onDemand);
+  }
+
+  public synchronized List<Status> recordings() {
+    var recordings = new ArrayList<Status>();
+    if (continuous != null) {
+      recordings.add(status(CONTINUOUS, continuous));
+    }
+    if (onDemand != null) {
+      recordings.add(status(ON_DEMAND, onDemand));
+    }
+    return recordings;
+  }
+
+  /**
+   * Dump a snapshot of a recording into a temporary file, which the caller has to delete
+   *
+   * @param name {@link #CONTINUOUS} or {@link #ON_DEMAND}
+   * @return the file, null if there is no such recording
+   */
+  public synchronized Path dump(String name) throws IOException {
+    var recording =
+        switch (name) {
+          case CONTINUOUS -> continuous;
+          case ON_DEMAND -> onDemand;
+          default -> null;
+        };
+    if (recording == null) {
+      return null;
+    }
+    var file = Files.createTempFile("history-" + name + "-", ".jfr");
+    try {
+      recording.dump(file);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    return file;
+  }
+
+  private Status status(String name, Recording recording) {
+    return new Status(
+        name,
+        recording == continuous ? CONTINUOUS_SETTINGS : config.settings(),
+        recording.getState().name(),
+        recording.getStartTime(),
+        recording.getDuration(),
+        recording.getSize());
+  }
+
+  private static Map<String, String> configuration(String name) {
+    try {
+      Map<String, String> settings =
+          new HashMap<>(Configuration.getConfiguration(name).getSettings());
+      SECRET_EVENTS.forEach(event -> settings.put(event + "#enabled", "false"));
+      return settings;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unknown flight recorder settings " + name, e);
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("Invalid flight recorder settings " + name, e);
+    }
+  }
+}
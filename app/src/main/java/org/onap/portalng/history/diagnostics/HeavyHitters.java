@@ -0,0 +1,185 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.onap.portalng.history.configuration.HistoryConfig;
+
+/**
+ * Heavy hitters of one dimension (e.g. the users) per time window. The keys are counted in a
+ * {@link CountMinSketch} and the keys with the highest estimates are kept as candidates, which is
+ * the top-K of the window. Only the sketch and candidates of the current and the previous window
+ * are kept, the memory is the same for ten or ten million keys.
+ *
+ * <p>The request path is lock-free unless a key is admitted as new candidate: counting goes to the
+ * sketch and the estimate of a candidate is updated in place. A key that is no candidate yet takes
+ * the lock only if its estimate exceeds the smallest candidate.
+ */
+public class HeavyHitters {
+
+  private final HistoryConfig.HeavyHitters config;
+  private final long windowMillis;
+  private final Clock clock;
+  private final AtomicReference<Window> current;
+  private volatile Window previous;
+  private final LongAdder requests = new LongAdder();
+
+  public HeavyHitters(HistoryConfig.HeavyHitters config) {
+    this(config, Clock.systemUTC());
+  }
+
+  HeavyHitters(HistoryConfig.HeavyHitters config, Clock clock) {
+    this.config = config;
+    this.windowMillis = config.window().toMillis();
+    this.clock = clock;
+    this.current = new AtomicReference<>(newWindow(clock.millis()));
+  }
+
+  /**
+   * A heavy hitter of a window
+   *
+   * @param count estimated number of requests, exceeds the actual count by at most the error bound
+   *     of the window with a high probability
+   * @param share count relative to all requests of the window
+   */
+  public record HeavyHitter(String key, long count, double share) {}
+
+  /**
+   * The heavy hitters of a window, highest first
+   *
+   * @param total number of requests of the window
+   * @param errorBound maximum overestimate of the counts with a high probability
+   */
+  public record Snapshot(
+      Instant start, Instant end, long total, long errorBound, List<HeavyHitter> top) {}
+
+  /** Count a request of the key */
+  public void add(String key) {
+    requests.increment();
+    var window = window(clock.millis());
+    window.total.increment();
+    var hash = CountMinSketch.hash(key);
+    var estimate = window.sketch.add(hash);
+    if (window.candidates.computeIfPresent(key, (k, count) -> Math.max(count, estimate)) != null
+        || estimate <= window.admission) {
+      return;
+    }
+    synchronized (window) {
+      window.admit(key, estimate);
+    }
+  }
+
+  /** Number of requests counted in all windows */
+  public long requests() {
+    return requests.sum();
+  }
+
+  /** The heavy hitters of the current window, which is still counting */
+  public Snapshot current(int limit) {
+    return window(clock.millis()).snapshot(limit);
+  }
+
+  /** The heavy hitters of the last complete window, null before the first window is complete */
+  public Snapshot previous(int limit) {
+    window(clock.millis());
+    var window = previous;
+    return window == null ? null : window.snapshot(limit);
+  }
+
+  private Window window(long now) {
+    var window = current.get();
+    while (now >= window.end) {
+      var next = newWindow(now);
+      if (current.compareAndSet(window, next)) {
+        // a window without requests in between leaves nothing to report
+        previous = now < window.end + windowMillis ? window : null;
+        return next;
+      }
+      window = current.get();
+    }
+    return window;
+  }
+
+  private Window newWindow(long now) {
+    var start = now - Math.floorMod(now, windowMillis);
+    return new Window(start, start + windowMillis);
+  }
+
+  private final class Window {
+    private final long start;
+    private final long end;
+    private final CountMinSketch sketch = new CountMinSketch(config.width(), config.depth());
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+    // smallest candidate once the candidates are full, keys below it are not admitted
+    private volatile long admission;
+
+    private Window(long start, long end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    // guarded by the window
+    private void admit(String key, long estimate) {
+      if (candidates.size() >= config.capacity()) {
+        var smallest = smallest();
+        if (smallest == null || smallest.getValue() >= estimate) {
+          return;
+        }
+        candidates.remove(smallest.getKey());
+      }
+      candidates.put(key, estimate);
+      if (candidates.size() >= config.capacity()) {
+        admission = smallest().getValue();
+      }
+    }
+
+    private Map.Entry<String, Long> smallest() {
+      return candidates.entrySet().stream().min(Map.Entry.comparingByValue()).orElse(null);
+    }
+
+    private Snapshot snapshot(int limit) {
+      var requests = total.sum();
+      var top =
+          candidates.keySet().stream()
+              .map(key -> heavyHitter(key, requests))
+              .sorted(Comparator.comparingLong(HeavyHitter::count).reversed())
+              .limit(limit)
+              .toList();
+      var errorBound = (long) Math.ceil(Math.E / config.width() * requests);
+      return new Snapshot(
+          Instant.ofEpochMilli(start), Instant.ofEpochMilli(end), requests, errorBound, top);
+    }
+
+    private HeavyHitter heavyHitter(String key, long requests) {
+      var count = sketch.estimate(CountMinSketch.hash(key));
+      return new HeavyHitter(key, count, requests == 0 ? 0 : (double) count / requests);
+    }
+  }
+}
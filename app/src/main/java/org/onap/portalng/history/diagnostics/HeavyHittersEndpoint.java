@@ -0,0 +1,68 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * Actuator endpoint {@code /actuator/heavyhitters} with the users and endpoints that sent the most
+ * requests in the current and the last complete window. {@code /actuator/heavyhitters/user} and
+ * {@code /actuator/heavyhitters/endpoint} select one dimension.
+ */
+@Endpoint(id = "heavyhitters")
+public class HeavyHittersEndpoint {
+
+  private static final int TOP = 20;
+
+  private final RequestHeavyHitters heavyHitters;
+
+  public HeavyHittersEndpoint(RequestHeavyHitters heavyHitters) {
+    this.heavyHitters = heavyHitters;
+  }
+
+  /**
+   * @param current the window that is still counting
+   * @param previous the last complete window, null if there is none yet
+   */
+  public record Windows(HeavyHitters.Snapshot current, HeavyHitters.Snapshot previous) {}
+
+  @ReadOperation
+  public Map<String, Windows> heavyHitters() {
+    var windows = new LinkedHashMap<String, Windows>();
+    heavyHitters.dimensions().forEach((name, dimension) -> windows.put(name, windows(dimension)));
+    return windows;
+  }
+
+  @ReadOperation
+  public Windows dimension(@Selector String dimension) {
+    var heavyHitters = this.heavyHitters.dimensions().get(dimension);
+    return heavyHitters == null ? null : windows(heavyHitters);
+  }
+
+  private static Windows windows(HeavyHitters heavyHitters) {
+    return new Windows(heavyHitters.current(TOP), heavyHitters.previous(TOP));
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event of encoding a response body to JSON, see {@code MeteredJsonEncoder}. */
+@Name("org.onap.portalng.history.JsonEncoding")
+@Label("JSON Encoding")
+@Category({"ONAP Portal-NG History", "Encoding"})
+@Description("Encoding of a response body to JSON")
+@StackTrace(false)
+public class JsonEncodingEvent extends Event {
+
+  @Label("Type")
+  public String type;
+
+  @Label("Size")
+  @DataAmount
+  public long bytes;
+}
@@ -0,0 +1,58 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of an HTTP request, from receiving it until it is finished. Emitted by the {@code
+ * ReactiveRequestLoggingFilter} for every request that is not excluded from logging, independent of
+ * the log sampling.
+ */
+@Name("org.onap.portalng.history.Request")
+@Label("Request")
+@Category({"ONAP Portal-NG History", "Requests"})
+@Description("HTTP request from receiving it until it is finished")
+@StackTrace(false)
+public class RequestEvent extends Event {
+
+  @Label("Method")
+  public String method;
+
+  @Label("Endpoint")
+  @Description("Path pattern of the endpoint, UNKNOWN if no endpoint matched")
+  public String endpoint;
+
+  @Label("Status")
+  public int status;
+
+  @Label("Failed")
+  public boolean failed;
+
+  @Label("Trace Id")
+  public String traceId;
+}
@@ -0,0 +1,126 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.util.IdTokenExchange;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/**
+ * Tracks the {@link HeavyHitters} of the requests by user and by endpoint. The user is counted when
+ * the request is received, the endpoint when it is finished, because the path pattern is only known
+ * once the request was mapped. Requests without an authenticated user are only counted by endpoint.
+ *
+ * <p>The request counts of the heavy hitters of the last complete window are published in {@code
+ * history.heavy.hitters}, tagged with the dimension and the rank only. The keys, which include the
+ * user ids, are only available at the secured actuator endpoint, and the series are the same in
+ * every window.
+ */
+public class RequestHeavyHitters implements WebFilter, MeterBinder {
+
+  private static final String USER = "user";
+  private static final String ENDPOINT = "endpoint";
+
+  private final Map<String, HeavyHitters> dimensions = new LinkedHashMap<>();
+  private final int metricsTop;
+  private MultiGauge published;
+
+  public RequestHeavyHitters(HistoryConfig historyConfig) {
+    var config = historyConfig.getHeavyHitters();
+    this.dimensions.put(USER, new HeavyHitters(config));
+    this.dimensions.put(ENDPOINT, new HeavyHitters(config));
+    this.metricsTop = config.metricsTop();
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    var users = dimensions.get(USER);
+    var endpoints = dimensions.get(ENDPOINT);
+    return IdTokenExchange.extractUserId(exchange)
+        .doOnNext(users::add)
+        .then(chain.filter(exchange))
+        .doFinally(signal -> endpoints.add(endpoint(exchange)));
+  }
+
+  /** The heavy hitters by dimension, {@code user} and {@code endpoint} */
+  public Map<String, HeavyHitters> dimensions() {
+    return dimensions;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    dimensions.forEach(
+        (name, heavyHitters) ->
+            FunctionCounter.builder(
+                    "history.heavy.hitters.requests", heavyHitters, HeavyHitters::requests)
+                .description("Requests counted by the heavy hitters")
+                .tag("dimension", name)
+                .register(registry));
+    published =
+        MultiGauge.builder("history.heavy.hitters")
+            .description("Requests of the heavy hitters in the last complete window")
+            .register(registry);
+  }
+
+  /** Publish the heavy hitters of the last complete window. */
+  @Scheduled(fixedDelayString = "${history.heavy-hitters.window:1m}")
+  public void publish() {
+    if (published == null) {
+      return;
+    }
+    var rows = new ArrayList<MultiGauge.Row<?>>();
+    dimensions.forEach(
+        (name, heavyHitters) -> {
+          var window = heavyHitters.previous(metricsTop);
+          if (window == null) {
+            return;
+          }
+          var rank = 1;
+          for (var heavyHitter : window.top()) {
+            var tags = Tags.of("dimension", name, "rank", String.valueOf(rank++));
+            rows.add(MultiGauge.Row.of(tags, heavyHitter.count()));
+          }
+        });
+    published.register(rows, true);
+  }
+
+  private static String endpoint(ServerWebExchange exchange) {
+    PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    return exchange.getRequest().getMethod().name()
+        + " "
+        + (pattern == null ? "UNKNOWN" : pattern.getPatternString());
+  }
+}
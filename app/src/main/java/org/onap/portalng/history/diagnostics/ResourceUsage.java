@@ -0,0 +1,91 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CPU time and heap allocations of a request, summed up over the threads that worked on it. The
+ * usage of a thread is measured by sampling the counters of the {@link
+ * com.sun.management.ThreadMXBean} when the work of the request starts and ends on it, e.g. around
+ * the repository call on a {@code boundedElastic} thread. Work on event loop threads, which switch
+ * between requests, is not included.
+ *
+ * <p>The usage of a request is passed down the Reactor pipeline in the subscriber context, with
+ * this class as key.
+ */
+public final class ResourceUsage {
+
+  private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+  private final LongAdder allocatedBytes = new LongAdder();
+  private final LongAdder cpuNanos = new LongAdder();
+
+  /**
+   * Counters of the current thread
+   *
+   * @param allocatedBytes bytes the thread has allocated on the heap since it started
+   * @param cpuNanos CPU time of the thread since it started
+   */
+  public record Sample(long allocatedBytes, long cpuNanos) {
+
+    /** Usage of the thread between the given sample and this one */
+    public Sample since(Sample start) {
+      return new Sample(allocatedBytes - start.allocatedBytes, cpuNanos - start.cpuNanos);
+    }
+  }
+
+  /** Whether the JVM measures the allocations and CPU time of threads */
+  public static boolean isSupported() {
+    return THREADS != null;
+  }
+
+  /** Sample the counters of the current thread, only if {@link #isSupported()} */
+  public static Sample sample() {
+    return new Sample(THREADS.getCurrentThreadAllocatedBytes(), THREADS.getCurrentThreadCpuTime());
+  }
+
+  public void add(Sample usage) {
+    allocatedBytes.add(usage.allocatedBytes());
+    cpuNanos.add(usage.cpuNanos());
+  }
+
+  public long getAllocatedBytes() {
+    return allocatedBytes.sum();
+  }
+
+  public long getCpuNanos() {
+    return cpuNanos.sum();
+  }
+
+  private static com.sun.management.ThreadMXBean threads() {
+    if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+        || !threads.isThreadAllocatedMemorySupported()
+        || !threads.isCurrentThreadCpuTimeSupported()) {
+      return null;
+    }
+    threads.setThreadAllocatedMemoryEnabled(true);
+    threads.setThreadCpuTimeEnabled(true);
+    return threads;
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of the wait for a {@code boundedElastic} thread, from the subscription on the event
+ * loop until the repository call starts. Committed on the worker thread.
+ */
+@Name("org.onap.portalng.history.SchedulerHandOff")
+@Label("Scheduler Hand-Off")
+@Category({"ONAP Portal-NG History", "Repository"})
+@Description("Wait for a boundedElastic thread before a repository call")
+@StackTrace(false)
+public class SchedulerHandOffEvent extends Event {
+
+  @Label("Operation")
+  public String operation;
+}
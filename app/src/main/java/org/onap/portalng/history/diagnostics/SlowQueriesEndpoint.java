@@ -0,0 +1,61 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint {@code /actuator/slowqueries} with the recent slow statements and the
+ * statements with the highest total duration including their last plan. A DELETE resets both,
+ * e.g. to watch the plans after an index change.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+  private static final int TOP = 20;
+
+  private final SlowQueryRecorder recorder;
+
+  public SlowQueriesEndpoint(SlowQueryRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  /**
+   * @param top the statements with the highest total duration
+   * @param recent the recent slow statements, newest first
+   */
+  public record SlowQueries(
+      List<SlowQueryRecorder.Offender> top, List<SlowQueryRecorder.SlowQuery> recent) {}
+
+  @ReadOperation
+  public SlowQueries slowQueries() {
+    return new SlowQueries(recorder.top(TOP), recorder.recent());
+  }
+
+  @DeleteOperation
+  public void reset() {
+    recorder.clear();
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that times the statements executed on its connections and hands them to the {@link
+ * SlowQueryRecorder}. Both the statements of Hibernate and of the {@code JdbcTemplate} queries pass
+ * through here. The connections and statements are JDK proxies of the pooled ones; everything but
+ * binding parameters and executing is passed through unchanged.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+  private static final Set<String> EXECUTE_METHODS =
+      Set.of(
+          "execute",
+          "executeQuery",
+          "executeUpdate",
+          "executeLargeUpdate",
+          "executeBatch",
+          "executeLargeBatch");
+
+  private final SlowQueryRecorder recorder;
+
+  public SlowQueryDataSource(DataSource targetDataSource, SlowQueryRecorder recorder) {
+    super(targetDataSource);
+    this.recorder = recorder;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return recording(obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return recording(obtainTargetDataSource().getConnection(username, password));
+  }
+
+  private Connection recording(Connection connection) {
+    return (Connection)
+        Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              var result = invoke(connection, method, args);
+              return switch (method.getName()) {
+                case "createStatement" -> recording((Statement) result, Statement.class, null);
+                case "prepareStatement" ->
+                    recording((Statement) result, PreparedStatement.class, (String) args[0]);
+                case "prepareCall" ->
+                    recording((Statement) result, CallableStatement.class, (String) args[0]);
+                default -> result;
+              };
+            });
+  }
+
+  private Object recording(Statement statement, Class<?> type, String sql) {
+    return Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] {type}, new Recording(statement, sql));
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  // setXxx(parameterIndex, value, ...), unlike the setters of the statement options
+  private static boolean isBinding(String name, Object[] args) {
+    return name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer;
+  }
+
+  /** Collects the bound parameters of a statement and times its executions. */
+  private final class Recording implements InvocationHandler {
+    private final Statement statement;
+    private final String preparedSql;
+    private final List<Object> parameters = new ArrayList<>();
+
+    private Recording(Statement statement, String preparedSql) {
+      this.statement = statement;
+      this.preparedSql = preparedSql;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      var name = method.getName();
+      if (isBinding(name, args)) {
+        bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+      } else if (name.equals("clearParameters")) {
+        parameters.clear();
+      }
+      if (!EXECUTE_METHODS.contains(name)) {
+        return SlowQueryDataSource.invoke(statement, method, args);
+      }
+      var prepared = args == null || args.length == 0;
+      var start = System.nanoTime();
+      try {
+        return SlowQueryDataSource.invoke(statement, method, args);
+      } finally {
+        var duration = System.nanoTime() - start;
+        if (recorder.isSlow(duration)) {
+          recorder.record(
+              prepared ? preparedSql : (String) args[0],
+              prepared ? new ArrayList<>(parameters) : List.of(),
+              duration);
+        }
+      }
+    }
+
+    private void bind(int index, Object value) {
+      if (parameters.size() < index) {
+        parameters.addAll(Collections.nCopies(index - parameters.size(), null));
+      }
+      parameters.set(index - 1, value);
+    }
+  }
+}
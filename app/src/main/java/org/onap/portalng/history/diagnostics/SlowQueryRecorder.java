@@ -0,0 +1,291 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.onap.portalng.history.configuration.HistoryConfig;
+
+/**
+ * Keeps the slow statements of the application. Every statement of at least the threshold is
+ * added to a ring of the recent slow statements and aggregated by its normalized SQL, so that the
+ * statements with the highest total duration can be explained. Only the types of the bound
+ * parameters are exposed; the values of the last execution are kept in memory to explain the
+ * statement and never leave the service.
+ *
+ * <p>Statements below the threshold only cost a comparison, slow statements take a lock. Slow
+ * statements are rare by definition, with a threshold of zero every statement contends for it.
+ */
+public class SlowQueryRecorder implements MeterBinder {
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\(\\?(?: ?, ?\\?)+\\)");
+
+  private final long thresholdNanos;
+  private final int maxStatements;
+  private final Clock clock;
+  private final SlowQuery[] ring;
+  private final Map<String, Statement> statements = new HashMap<>();
+  private long recorded;
+
+  public SlowQueryRecorder(HistoryConfig.SlowQueries config) {
+    this(config, Clock.systemUTC());
+  }
+
+  SlowQueryRecorder(HistoryConfig.SlowQueries config, Clock clock) {
+    this.thresholdNanos = config.threshold().toNanos();
+    this.maxStatements = config.maxStatements();
+    this.clock = clock;
+    this.ring = new SlowQuery[config.capacity()];
+  }
+
+  /** A slow statement, see {@link #recent()}. */
+  public record SlowQuery(
+      Instant time, String sql, List<String> parameters, double durationMillis) {}
+
+  /**
+   * The aggregate of a normalized statement, see {@link #top(int)}.
+   *
+   * @param sql normalized statement
+   * @param parameters types of the parameters bound in the last execution
+   * @param plan the last captured plan, null if the statement was not explained yet
+   */
+  public record Offender(
+      String sql,
+      long count,
+      double totalMillis,
+      double maxMillis,
+      Instant lastSeen,
+      List<String> parameters,
+      ExplainPlan plan) {}
+
+  /**
+   * Output of {@code EXPLAIN (ANALYZE, BUFFERS)}.
+   *
+   * @param sequentialScan the plan reads a table sequentially, e.g. because an index is no longer
+   *     chosen after bulk deletes
+   */
+  public record ExplainPlan(Instant capturedAt, boolean sequentialScan, List<String> lines) {}
+
+  /** The last execution of a statement that is due to be explained, see {@link #explainable}. */
+  public record Explainable(String key, String sql, List<Object> parameters) {}
+
+  /** Whether a statement of the given duration is recorded */
+  public boolean isSlow(long durationNanos) {
+    return durationNanos >= thresholdNanos;
+  }
+
+  /**
+   * Record an executed statement
+   *
+   * @param sql statement as sent to the database
+   * @param parameters the bound parameters by index, null entries for unbound indexes
+   * @param durationNanos execution time of the statement
+   */
+  public void record(String sql, List<Object> parameters, long durationNanos) {
+    if (!isSlow(durationNanos) || sql == null) {
+      return;
+    }
+    var normalized = normalize(sql);
+    var types = parameters.stream().map(SlowQueryRecorder::typeOf).toList();
+    var now = clock.instant();
+    synchronized (this) {
+      ring[(int) (recorded++ % ring.length)] =
+          new SlowQuery(now, normalized, types, millis(durationNanos));
+      var statement = statements.get(normalized);
+      if (statement == null) {
+        if (statements.size() >= maxStatements) {
+          evictSmallest();
+        }
+        statement = new Statement(normalized);
+        statements.put(normalized, statement);
+      }
+      statement.add(sql, parameters, types, durationNanos, now);
+    }
+  }
+
+  /** The recent slow statements, newest first */
+  public synchronized List<SlowQuery> recent() {
+    var count = (int) Math.min(recorded, ring.length);
+    var recent = new ArrayList<SlowQuery>(count);
+    for (var i = 1; i <= count; i++) {
+      recent.add(ring[(int) ((recorded - i) % ring.length)]);
+    }
+    return recent;
+  }
+
+  /** The statements with the highest total duration, highest first */
+  public synchronized List<Offender> top(int limit) {
+    return statements.values().stream()
+        .sorted(Comparator.comparingLong(Statement::totalNanos).reversed())
+        .limit(limit)
+        .map(Statement::toOffender)
+        .toList();
+  }
+
+  /**
+   * The last execution of the first statement among the top ones whose plan is missing or older
+   * than the given time to live. Only SELECT statements are explained, because the explain
+   * executes the statement.
+   *
+   * @return the statement to explain, null if no statement is due
+   */
+  public synchronized Explainable explainable(int top, Duration planTtl) {
+    var due = clock.instant().minus(planTtl);
+    return statements.values().stream()
+        .sorted(Comparator.comparingLong(Statement::totalNanos).reversed())
+        .limit(top)
+        .filter(statement -> statement.lastSql != null)
+        .filter(statement -> statement.plan == null || statement.plan.capturedAt().isBefore(due))
+        .findFirst()
+        .map(
+            statement ->
+                new Explainable(statement.sql, statement.lastSql, statement.lastParameters))
+        .orElse(null);
+  }
+
+  /** Store the plan of a statement returned by {@link #explainable}. */
+  public synchronized void explained(String key, List<String> lines) {
+    var statement = statements.get(key);
+    if (statement != null) {
+      var sequentialScan = lines.stream().anyMatch(line -> line.contains("Seq Scan on "));
+      statement.plan = new ExplainPlan(clock.instant(), sequentialScan, List.copyOf(lines));
+    }
+  }
+
+  /** Forget all recorded statements and plans. */
+  public synchronized void clear() {
+    statements.clear();
+    recorded = 0;
+    Arrays.fill(ring, null);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("history.db.slow.queries", this, SlowQueryRecorder::recorded)
+        .description("Statements that took at least the slow query threshold")
+        .register(registry);
+    Gauge.builder(
+            "history.db.slow.queries.sequential.scans", this, SlowQueryRecorder::sequentialScans)
+        .description("Aggregated slow statements whose last plan reads a table sequentially")
+        .register(registry);
+  }
+
+  /**
+   * Normalize a statement to aggregate its executions: whitespace is collapsed, literals are
+   * replaced by {@code ?} and lists of parameters in {@code IN} are collapsed into one.
+   */
+  static String normalize(String sql) {
+    var normalized = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+    normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+    return IN_LIST.matcher(normalized).replaceAll("IN (?...)");
+  }
+
+  static boolean isSelect(String sql) {
+    var statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+    return (statement.startsWith("select") || statement.startsWith("with"))
+        && !statement.contains(" for update")
+        && !statement.contains(" for share");
+  }
+
+  private static String typeOf(Object parameter) {
+    return parameter == null ? "null" : parameter.getClass().getSimpleName();
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  private void evictSmallest() {
+    statements.values().stream()
+        .min(Comparator.comparingLong(Statement::totalNanos))
+        .ifPresent(smallest -> statements.remove(smallest.sql));
+  }
+
+  private synchronized double recorded() {
+    return recorded;
+  }
+
+  private synchronized double sequentialScans() {
+    return statements.values().stream()
+        .filter(statement -> statement.plan != null && statement.plan.sequentialScan())
+        .count();
+  }
+
+  private static final class Statement {
+    private final String sql;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+    private Instant lastSeen;
+    private List<String> parameterTypes;
+    private String lastSql;
+    private List<Object> lastParameters;
+    private ExplainPlan plan;
+
+    private Statement(String sql) {
+      this.sql = sql;
+    }
+
+    private void add(
+        String executed,
+        List<Object> parameters,
+        List<String> types,
+        long durationNanos,
+        Instant now) {
+      count++;
+      totalNanos += durationNanos;
+      maxNanos = Math.max(maxNanos, durationNanos);
+      lastSeen = now;
+      parameterTypes = types;
+      if (isSelect(executed)) {
+        lastSql = executed;
+        lastParameters = parameters;
+      }
+    }
+
+    private long totalNanos() {
+      return totalNanos;
+    }
+
+    private Offender toOffender() {
+      return new Offender(
+          sql, count, millis(totalNanos), millis(maxNanos), lastSeen, parameterTypes, plan);
+    }
+  }
+}
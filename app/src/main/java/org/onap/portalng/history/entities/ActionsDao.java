@@ -22,12 +22,15 @@
 package org.onap.portalng.history.entities;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.util.Date;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnTransformer;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UuidGenerator;
 import org.hibernate.type.SqlTypes;
@@ -50,4 +53,27 @@ public class ActionsDao {
 
   @JdbcTypeCode(SqlTypes.JSON)
   private JsonNode action;
+
+  /** Reference into action_payloads if the payload is stored deduplicated, action is then null */
+  private String payloadHash;
+
+  /** Deflated JSON of large payloads, action is then null */
+  private byte[] actionCompressed;
+
+  /** Number of identical actions coalesced into this one, see {@code ActionCoalescer} */
+  private int repeatCount = 1;
+
+  /**
+   * Text the search_vector column is built from on insert. Never read back; the column is only
+   * updated by the deferred indexing in {@code SearchIndexer}.
+   */
+  @Column(name = "search_vector", updatable = false)
+  @ColumnTransformer(read = "null", write = "to_tsvector('simple', ?)")
+  private String searchDocument;
+
+  /**
+   * Set on page reads when the payload alone exceeds the response byte budget and was not read,
+   * action and actionCompressed are then null
+   */
+  @Transient private boolean payloadOmitted;
 }
@@ -0,0 +1,147 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.event.Level;
+
+/**
+ * Appender that hands log events to a bounded queue and writes them to its delegates from a
+ * dedicated thread. Unlike logback's {@code AsyncAppender} it counts the events it drops, per
+ * level. Appending never blocks: events up to the discard level are dropped once fewer than the
+ * discarding threshold slots are left, every other event once the queue is full. The drop
+ * counters may be shared with the owner of the appender, so that they outlive a restart.
+ */
+public class AsyncLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+  private static final long FLUSH_TIMEOUT_MILLIS = 1000;
+
+  private final List<Appender<ILoggingEvent>> delegates;
+  private final BlockingQueue<ILoggingEvent> queue;
+  private final int discardingThreshold;
+  private final Level discardLevel;
+  private final Map<Level, LongAdder> dropped;
+  private Thread writer;
+
+  public AsyncLogAppender(List<Appender<ILoggingEvent>> delegates, LoggerProperties.Async async) {
+    this(delegates, async, dropCounters());
+  }
+
+  /**
+   * Appender that counts the dropped events in counters owned by the caller
+   *
+   * @param dropped counters of the dropped events per level, see {@link #dropCounters()}
+   */
+  public AsyncLogAppender(
+      List<Appender<ILoggingEvent>> delegates,
+      LoggerProperties.Async async,
+      Map<Level, LongAdder> dropped) {
+    this.delegates = List.copyOf(delegates);
+    this.queue = new ArrayBlockingQueue<>(async.queueSize());
+    this.discardingThreshold = async.discardingThreshold();
+    this.discardLevel = async.discardLevel();
+    this.dropped = dropped;
+  }
+
+  /** A zero counter for every level. */
+  public static Map<Level, LongAdder> dropCounters() {
+    var dropped = new EnumMap<Level, LongAdder>(Level.class);
+    for (Level level : Level.values()) {
+      dropped.put(level, new LongAdder());
+    }
+    return dropped;
+  }
+
+  @Override
+  public void start() {
+    writer = Thread.ofPlatform().name("history-log-writer").daemon().unstarted(this::write);
+    super.start();
+    writer.start();
+  }
+
+  /** Stop accepting events and write the queued ones, for at most a second. */
+  @Override
+  public void stop() {
+    if (!isStarted()) {
+      return;
+    }
+    super.stop();
+    writer.interrupt();
+    try {
+      writer.join(FLUSH_TIMEOUT_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    var level =
+        Level.intToLevel(
+            ch.qos.logback.classic.Level.toLocationAwareLoggerInteger(event.getLevel()));
+    // org.slf4j.event.Level is ordered from ERROR to TRACE
+    if (queue.remainingCapacity() < discardingThreshold && level.compareTo(discardLevel) >= 0) {
+      dropped.get(level).increment();
+      return;
+    }
+    // the event is written on another thread, take its thread-bound data now
+    event.prepareForDeferredProcessing();
+    if (!queue.offer(event)) {
+      dropped.get(level).increment();
+    }
+  }
+
+  public long getDropped(Level level) {
+    return dropped.get(level).sum();
+  }
+
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  private void write() {
+    try {
+      while (true) {
+        dispatch(queue.take());
+      }
+    } catch (InterruptedException e) {
+      var remaining = new ArrayList<ILoggingEvent>(queue.size());
+      queue.drainTo(remaining);
+      remaining.forEach(this::dispatch);
+    }
+  }
+
+  private void dispatch(ILoggingEvent event) {
+    for (Appender<ILoggingEvent> delegate : delegates) {
+      delegate.doAppend(event);
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Switch the root logger to asynchronous logging, see {@link LoggerProperties.Async}. The
+ * appenders configured by Spring Boot (the structured console appender) are moved behind an {@link
+ * AsyncLogAppender} when the context starts and are restored when it stops, so that the shutdown
+ * is logged synchronously again.
+ */
+@Component
+@ConditionalOnProperty(prefix = "logger.async", name = "enabled", havingValue = "true")
+public class AsyncLogging implements SmartLifecycle, MeterBinder {
+
+  private final LoggerProperties.Async async;
+  private final List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+  // kept here and not in the appender, the counters must not restart with it
+  private final Map<Level, LongAdder> dropped = AsyncLogAppender.dropCounters();
+  private AsyncLogAppender asyncAppender;
+
+  public AsyncLogging(LoggerProperties loggerProperties) {
+    this.async = loggerProperties.async();
+  }
+
+  @Override
+  public synchronized void start() {
+    if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+      return;
+    }
+    var root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    root.iteratorForAppenders().forEachRemaining(appenders::add);
+    asyncAppender = new AsyncLogAppender(appenders, async, dropped);
+    asyncAppender.setName("ASYNC");
+    asyncAppender.setContext(loggerContext);
+    asyncAppender.start();
+    root.addAppender(asyncAppender);
+    appenders.forEach(root::detachAppender);
+  }
+
+  @Override
+  public synchronized void stop() {
+    if (asyncAppender == null) {
+      return;
+    }
+    var loggerContext = (LoggerContext) asyncAppender.getContext();
+    var root = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+    appenders.forEach(root::addAppender);
+    root.detachAppender(asyncAppender);
+    asyncAppender.stop();
+    appenders.clear();
+    asyncAppender = null;
+  }
+
+  @Override
+  public synchronized boolean isRunning() {
+    return asyncAppender != null;
+  }
+
+  /** Start before and stop after every other component, so that their logs are written. */
+  @Override
+  public int getPhase() {
+    return Integer.MIN_VALUE;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (Level level : Level.values()) {
+      FunctionCounter.builder("history.logging.dropped", dropped.get(level), LongAdder::sum)
+          .description("Log events dropped because the queue of the async appender was full")
+          .tag("level", level.name())
+          .register(registry);
+    }
+    Gauge.builder("history.logging.queue.size", this, AsyncLogging::queueSize)
+        .description("Log events waiting in the queue of the async appender")
+        .register(registry);
+  }
+
+  private synchronized double queueSize() {
+    return asyncAppender == null ? 0 : asyncAppender.getQueueSize();
+  }
+}
@@ -30,6 +30,8 @@ public enum LogContextVariable {
   NORTHBOUND_METHOD("northbound.method"),
   NORTHBOUND_URL("northbound.url"),
   EXECUTION_TIME("execution.time_ms"),
+  EXECUTION_ALLOCATED("execution.allocated_bytes"),
+  EXECUTION_CPU_TIME("execution.cpu_time_ms"),
   HTTP_STATUS("httpStatus");
 
   private final String variableName;
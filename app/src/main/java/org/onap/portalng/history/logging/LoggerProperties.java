@@ -21,9 +21,69 @@
 
 package org.onap.portalng.history.logging;
 
+import java.time.Duration;
 import java.util.List;
+import org.slf4j.event.Level;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
+/**
+ * Request logging.
+ *
+ * @param resourceAccounting measure the heap allocated and CPU time used by a request and add them
+ *     to its FINISHED log line, see {@link org.onap.portalng.history.diagnostics.ResourceUsage}
+ */
 @ConfigurationProperties("logger")
 public record LoggerProperties(
-    String traceIdHeaderName, Boolean enabled, List<String> excludePaths) {}
+    String traceIdHeaderName,
+    Boolean enabled,
+    List<String> excludePaths,
+    @DefaultValue Async async,
+    @DefaultValue Sampling sampling,
+    @DefaultValue("false") boolean resourceAccounting) {
+
+  /**
+   * Asynchronous logging. Log events are put into a bounded queue and written to the appenders of
+   * the root logger by a dedicated thread, so logging threads never wait for the output. Events
+   * are dropped instead of blocking: events up to {@code discardLevel} once fewer than {@code
+   * discardingThreshold} slots are left, any event once the queue is full. Dropped events are
+   * counted in the {@code history.logging.dropped} metric.
+   *
+   * @param enabled write log events asynchronously
+   * @param queueSize capacity of the queue
+   * @param discardingThreshold remaining capacity below which events up to discardLevel are dropped
+   * @param discardLevel highest level that is dropped before the queue is full
+   */
+  public record Async(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("8192") int queueSize,
+      @DefaultValue("1024") int discardingThreshold,
+      @DefaultValue("INFO") Level discardLevel) {}
+
+  /**
+   * Sampling of request logs. Failed and slow requests are always logged. Other requests are
+   * logged at the rate of the first endpoint whose pattern matches their path, or at the default
+   * rate. The decision is taken from the trace id, like the ratio based sampler of OpenTelemetry,
+   * so that RECEIVED and FINISHED of a request are either both logged or both dropped and the same
+   * traces are logged on every instance. Requests without a hexadecimal trace id are sampled at
+   * random. Decisions are counted in the {@code history.logging.requests} metric.
+   *
+   * @param enabled sample request logs, log every request otherwise
+   * @param rate share of requests that are logged if no endpoint matches, 0 to 1
+   * @param slowThreshold execution time from which a request is always logged
+   * @param endpoints rates of endpoints, the first matching pattern applies
+   */
+  public record Sampling(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("1.0") double rate,
+      @DefaultValue("1s") Duration slowThreshold,
+      @DefaultValue List<Endpoint> endpoints) {}
+
+  /**
+   * Sampling rate of an endpoint.
+   *
+   * @param pattern URL pattern of the endpoint, e.g. {@code /v1/actions/**}
+   * @param rate share of requests that are logged, 0 to 1
+   */
+  public record Endpoint(String pattern, double rate) {}
+}
@@ -21,47 +21,88 @@
 
 package org.onap.portalng.history.logging;
 
-import java.util.Map;
-import java.util.function.BiConsumer;
+import java.util.concurrent.TimeUnit;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.onap.portalng.history.diagnostics.ResourceUsage;
 import org.slf4j.Logger;
-import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
 
+/**
+ * Request log lines with their metadata as key/value pairs of the logging event. The structured
+ * encoder writes the pairs as fields like MDC entries, but nothing is copied into or cleared from
+ * the thread-local MDC, so entries of other components (e.g. the trace context) stay intact. The
+ * values are passed as objects and only turned into text by the encoder, nothing is built when the
+ * level is disabled.
+ */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class LoggingHelper {
-  public static void error(
-      Logger logger, Map<LogContextVariable, String> metadata, String message, Object... args) {
-    log(logger::error, metadata, message, args);
-  }
-
-  public static void debug(
-      Logger logger, Map<LogContextVariable, String> metadata, String message, Object... args) {
-    log(logger::debug, metadata, message, args);
-  }
-
-  public static void info(
-      Logger logger, Map<LogContextVariable, String> metadata, String message, Object... args) {
-    log(logger::info, metadata, message, args);
-  }
 
-  public static void warn(
-      Logger logger, Map<LogContextVariable, String> metadata, String message, Object... args) {
-    log(logger::warn, metadata, message, args);
+  public static void received(Logger logger, String traceId, ServerHttpRequest request) {
+    if (!logger.isInfoEnabled()) {
+      return;
+    }
+    withRequest(logger.atInfo(), traceId, request, StatusCode.REQUEST).log("RECEIVED");
   }
 
-  public static void trace(
-      Logger logger, Map<LogContextVariable, String> metadata, String message, Object... args) {
-    log(logger::trace, metadata, message, args);
+  /**
+   * Log the end of a request, FINISHED at INFO or FAILED at WARN if it failed.
+   *
+   * @param logger logger to write to
+   * @param traceId trace id of the request
+   * @param exchange exchange of the request
+   * @param executionNanos execution time of the request
+   * @param usage resources used by the request, null without resource accounting
+   * @param error error of the request, null if it succeeded
+   */
+  public static void finished(
+      Logger logger,
+      String traceId,
+      ServerWebExchange exchange,
+      long executionNanos,
+      ResourceUsage usage,
+      Throwable error) {
+    var level = error == null ? Level.INFO : Level.WARN;
+    if (!logger.isEnabledForLevel(level)) {
+      return;
+    }
+    var statusCode = exchange.getResponse().getStatusCode();
+    var status =
+        statusCode != null && statusCode.isError() ? StatusCode.ERROR : StatusCode.COMPLETE;
+    var event =
+        withRequest(logger.atLevel(level), traceId, exchange.getRequest(), status)
+            .addKeyValue(
+                LogContextVariable.HTTP_STATUS.getVariableName(),
+                statusCode != null ? statusCode.value() : null)
+            .addKeyValue(
+                LogContextVariable.EXECUTION_TIME.getVariableName(),
+                TimeUnit.NANOSECONDS.toMillis(executionNanos));
+    if (usage != null) {
+      event =
+          event
+              .addKeyValue(
+                  LogContextVariable.EXECUTION_ALLOCATED.getVariableName(),
+                  usage.getAllocatedBytes())
+              .addKeyValue(
+                  LogContextVariable.EXECUTION_CPU_TIME.getVariableName(),
+                  TimeUnit.NANOSECONDS.toMillis(usage.getCpuNanos()));
+    }
+    if (error == null) {
+      event.log("FINISHED");
+    } else {
+      event.log("FAILED: {}", error.getMessage());
+    }
   }
 
-  private static void log(
-      BiConsumer<String, Object[]> logMethod,
-      Map<LogContextVariable, String> metadata,
-      String message,
-      Object... args) {
-    metadata.forEach((variable, value) -> MDC.put(variable.getVariableName(), value));
-    logMethod.accept(message, args);
-    MDC.clear();
+  private static LoggingEventBuilder withRequest(
+      LoggingEventBuilder event, String traceId, ServerHttpRequest request, StatusCode status) {
+    return event
+        .addKeyValue(LogContextVariable.TRACE_ID.getVariableName(), traceId)
+        .addKeyValue(LogContextVariable.STATUS.getVariableName(), status)
+        .addKeyValue(LogContextVariable.NORTHBOUND_METHOD.getVariableName(), request.getMethod())
+        .addKeyValue(LogContextVariable.NORTHBOUND_URL.getVariableName(), request.getURI());
   }
 }
@@ -21,24 +21,53 @@
 
 package org.onap.portalng.history.logging;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.diagnostics.RequestEvent;
+import org.onap.portalng.history.diagnostics.ResourceUsage;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
+/**
+ * Log every request when it is received and when it is finished or failed. Runs on every request,
+ * so the properties are resolved once: the exclude paths are parsed into {@link PathPattern}s,
+ * the execution time is taken from the monotonic {@link System#nanoTime()} clock and the log lines
+ * are only built if their level is enabled (see {@link LoggingHelper}). {@code
+ * RequestLoggingBenchmark} compares the allocations per request with the former implementation.
+ *
+ * <p>At high request rates the logs can be sampled per endpoint, see {@link RequestLogSampler}.
+ * Independent of the sampling every request is emitted as {@link RequestEvent} to JFR.
+ *
+ * <p>With resource accounting, the heap allocated and the CPU time used by the request are
+ * collected into a {@link ResourceUsage} in the subscriber context and added to the FINISHED line.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
 public class ReactiveRequestLoggingFilter implements WebFilter {
 
-  private final LoggerProperties loggerProperties;
+  private final String traceIdHeaderName;
+  private final boolean enabled;
+  private final List<PathPattern> excludePatterns;
+  private final RequestLogSampler sampler;
+  private final boolean resourceAccounting;
+
+  public ReactiveRequestLoggingFilter(
+      LoggerProperties loggerProperties, MeterRegistry meterRegistry) {
+    this.traceIdHeaderName = loggerProperties.traceIdHeaderName();
+    this.enabled = Boolean.TRUE.equals(loggerProperties.enabled());
+    this.excludePatterns = WebExchangeUtils.parseUrlPatterns(loggerProperties.excludePaths());
+    this.sampler = new RequestLogSampler(loggerProperties.sampling(), meterRegistry);
+    this.resourceAccounting = loggerProperties.resourceAccounting() && ResourceUsage.isSupported();
+  }
 
   @Override
   public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
@@ -46,41 +75,70 @@ public class ReactiveRequestLoggingFilter implements WebFilter {
       return chain.filter(exchange);
     }
 
-    var logMessageMetadata =
-        WebExchangeUtils.getRequestMetadata(exchange, loggerProperties.traceIdHeaderName());
+    var traceId = WebExchangeUtils.getRequestId(exchange, traceIdHeaderName);
+    var rule = sampler.ruleFor(exchange.getRequest().getPath());
+    var sampled = sampler.sample(rule, traceId);
+    if (sampled) {
+      LoggingHelper.received(log, traceId, exchange.getRequest());
+    }
+
+    var event = new RequestEvent();
+    event.begin();
+    var usage = resourceAccounting ? new ResourceUsage() : null;
+    var request = new Request(traceId, rule, sampled, System.nanoTime(), event, usage);
+    var finishing =
+        chain
+            .filter(exchange)
+            .doOnSuccess(res -> finished(exchange, request, null))
+            .doOnError(ex -> finished(exchange, request, ex));
+    if (usage == null) {
+      return finishing;
+    }
+    // the repository calls of ActionsService add the usage of their threads, see ActionsMetrics
+    return finishing.contextWrite(Context.of(ResourceUsage.class, usage));
+  }
 
-    LoggingHelper.info(log, logMessageMetadata, "RECEIVED");
+  private void finished(ServerWebExchange exchange, Request request, Throwable error) {
+    var executionNanos = System.nanoTime() - request.invocationStart();
+    var statusCode = exchange.getResponse().getStatusCode();
+    var failed = error != null || (statusCode != null && statusCode.isError());
+    commit(request.event(), exchange, request.traceId(), failed);
+    if (sampler.keep(request.rule(), request.sampled(), failed, executionNanos)) {
+      LoggingHelper.finished(
+          log, request.traceId(), exchange, executionNanos, request.usage(), error);
+    }
+  }
 
-    var invocationStart = LocalDateTime.now();
-    return chain
-        .filter(exchange)
-        .doOnTerminate(
-            () -> {
-              logMessageMetadata.put(
-                  LogContextVariable.STATUS,
-                  exchange.getResponse().getStatusCode().isError()
-                      ? StatusCode.ERROR.name()
-                      : StatusCode.COMPLETE.name());
-              logMessageMetadata.put(
-                  LogContextVariable.HTTP_STATUS,
-                  String.valueOf(exchange.getResponse().getStatusCode().value()));
-              logMessageMetadata.put(
-                  LogContextVariable.EXECUTION_TIME,
-                  String.valueOf(
-                      Duration.between(invocationStart, LocalDateTime.now()).toMillis()));
-            })
-        .doOnSuccess(res -> LoggingHelper.info(log, logMessageMetadata, "FINISHED"))
-        .doOnError(
-            ex -> LoggingHelper.warn(log, logMessageMetadata, "FAILED: {}", ex.getMessage()));
+  private static void commit(
+      RequestEvent event, ServerWebExchange exchange, String traceId, boolean failed) {
+    event.end();
+    if (event.shouldCommit()) {
+      PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      var statusCode = exchange.getResponse().getStatusCode();
+      event.method = exchange.getRequest().getMethod().name();
+      event.endpoint = pattern == null ? "UNKNOWN" : pattern.getPatternString();
+      event.status = statusCode == null ? 0 : statusCode.value();
+      event.failed = failed;
+      event.traceId = traceId;
+      event.commit();
+    }
   }
 
   private boolean loggingDisabled(ServerWebExchange exchange) {
-    boolean loggingDisabled = loggerProperties.enabled() == null || !loggerProperties.enabled();
-
-    boolean urlShouldBeSkipped =
-        WebExchangeUtils.matchUrlsPatternsToPath(
-            loggerProperties.excludePaths(), exchange.getRequest().getPath().value());
+    // FAILED is logged at WARN, below that there is nothing to log
+    boolean loggingDisabled = !enabled || !log.isWarnEnabled();
 
-    return loggingDisabled || urlShouldBeSkipped;
+    return loggingDisabled
+        || WebExchangeUtils.matchUrlsPatternsToPath(
+            excludePatterns, exchange.getRequest().getPath());
   }
+
+  /** State of a request between receiving and finishing it */
+  private record Request(
+      String traceId,
+      RequestLogSampler.Rule rule,
+      boolean sampled,
+      long invocationStart,
+      RequestEvent event,
+      ResourceUsage usage) {}
 }
@@ -0,0 +1,165 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Decides which requests are logged, see {@link LoggerProperties.Sampling}. The rules of the
+ * endpoints are resolved once, including their counters, so a decision neither parses nor
+ * allocates.
+ */
+public class RequestLogSampler {
+
+  static final String DECISIONS_METRIC = "history.logging.requests";
+
+  private static final int TRACE_ID_RANDOM_PART_LENGTH = 16;
+
+  private final boolean enabled;
+  private final long slowThresholdNanos;
+  private final List<Rule> rules;
+  private final Rule defaultRule;
+
+  public RequestLogSampler(LoggerProperties.Sampling sampling, MeterRegistry meterRegistry) {
+    this.enabled = sampling.enabled();
+    this.slowThresholdNanos = sampling.slowThreshold().toNanos();
+    this.rules =
+        sampling.endpoints().stream()
+            .map(
+                endpoint ->
+                    new Rule(
+                        PathPatternParser.defaultInstance.parse(endpoint.pattern()),
+                        endpoint.pattern(),
+                        endpoint.rate(),
+                        meterRegistry))
+            .toList();
+    this.defaultRule = new Rule(null, "default", sampling.rate(), meterRegistry);
+  }
+
+  /**
+   * Rule of the first endpoint whose pattern matches the path.
+   *
+   * @param path path of the request
+   * @return rule of the endpoint, the default rule if none matches
+   */
+  public Rule ruleFor(PathContainer path) {
+    for (Rule rule : rules) {
+      if (rule.pattern.matches(path)) {
+        return rule;
+      }
+    }
+    return defaultRule;
+  }
+
+  /**
+   * Decide before a request is handled whether it is logged.
+   *
+   * @param rule rule of the endpoint of the request
+   * @param traceId trace id of the request
+   * @return true if RECEIVED and FINISHED of the request are logged
+   */
+  public boolean sample(Rule rule, String traceId) {
+    if (!enabled || rule.bound == Long.MAX_VALUE) {
+      return true;
+    }
+    return Math.abs(randomPart(traceId)) < rule.bound;
+  }
+
+  /**
+   * Decide after a request is handled whether its end is logged. Failed and slow requests are
+   * logged even if they were not sampled.
+   *
+   * @param rule rule of the endpoint of the request
+   * @param sampled result of {@link #sample(Rule, String)} for the request
+   * @param failed true if the request failed or its status is an error
+   * @param executionNanos execution time of the request
+   * @return true if the end of the request is logged
+   */
+  public boolean keep(Rule rule, boolean sampled, boolean failed, long executionNanos) {
+    if (!enabled) {
+      return true;
+    }
+    if (sampled) {
+      rule.sampled.increment();
+      return true;
+    }
+    if (failed || executionNanos >= slowThresholdNanos) {
+      rule.kept.increment();
+      return true;
+    }
+    rule.dropped.increment();
+    return false;
+  }
+
+  /**
+   * The lower 64 bits of a hexadecimal trace id, like OpenTelemetry's {@code
+   * TraceIdRatioBasedSampler}, so a rate here logs the same traces that a sampler with the same
+   * ratio keeps.
+   */
+  private static long randomPart(String traceId) {
+    var length = traceId.length();
+    if (length < TRACE_ID_RANDOM_PART_LENGTH) {
+      return ThreadLocalRandom.current().nextLong();
+    }
+    var randomPart = 0L;
+    for (var i = length - TRACE_ID_RANDOM_PART_LENGTH; i < length; i++) {
+      var digit = Character.digit(traceId.charAt(i), 16);
+      if (digit < 0) {
+        // not a hexadecimal trace id, e.g. the default of the header
+        return ThreadLocalRandom.current().nextLong();
+      }
+      randomPart = randomPart << 4 | digit;
+    }
+    return randomPart;
+  }
+
+  /** Sampling rate and decision counters of an endpoint. */
+  public static final class Rule {
+    private final PathPattern pattern;
+    private final long bound;
+    private final Counter sampled;
+    private final Counter kept;
+    private final Counter dropped;
+
+    private Rule(PathPattern pattern, String endpoint, double rate, MeterRegistry meterRegistry) {
+      this.pattern = pattern;
+      this.bound = rate >= 1 ? Long.MAX_VALUE : (long) (Math.max(rate, 0) * Long.MAX_VALUE);
+      this.sampled = counter(meterRegistry, endpoint, "sampled");
+      this.kept = counter(meterRegistry, endpoint, "kept");
+      this.dropped = counter(meterRegistry, endpoint, "dropped");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String endpoint, String decision) {
+      return Counter.builder(DECISIONS_METRIC)
+          .description("Request log decisions, kept requests were logged despite not being sampled")
+          .tag("endpoint", endpoint)
+          .tag("decision", decision)
+          .register(meterRegistry);
+    }
+  }
+}
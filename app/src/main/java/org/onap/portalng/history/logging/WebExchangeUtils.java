@@ -21,71 +21,47 @@
 
 package org.onap.portalng.history.logging;
 
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.springframework.util.AntPathMatcher;
-import org.springframework.util.PathMatcher;
+import org.springframework.http.server.PathContainer;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class WebExchangeUtils {
   private static final String DEFAULT_TRACE_ID = "REQUEST_ID_IS_NOT_SET";
-  private static final String DEFAULT_REQUEST_URL = "REQUEST_URL_IS_ABSENT";
-  private static final String DEFAULT_REQUEST_METHOD = "HTTP_METHOD_IS_ABSENT";
-
-  private static final PathMatcher pathMatcher = new AntPathMatcher();
 
   public static String getRequestId(ServerWebExchange webExchange, String traceIdHeaderName) {
     if (webExchange == null || traceIdHeaderName == null) {
       return DEFAULT_TRACE_ID;
     }
 
-    var requestIdHeaders = webExchange.getRequest().getHeaders().get(traceIdHeaderName);
-    if (requestIdHeaders != null) {
-      return requestIdHeaders.stream().findAny().orElse(DEFAULT_TRACE_ID);
-    } else {
-      return DEFAULT_TRACE_ID;
-    }
+    var requestId = webExchange.getRequest().getHeaders().getFirst(traceIdHeaderName);
+    return requestId != null ? requestId : DEFAULT_TRACE_ID;
   }
 
-  public static String getRequestUrl(ServerWebExchange webExchange) {
-    if (webExchange == null) {
-      return DEFAULT_REQUEST_URL;
+  /**
+   * Parse URL patterns once, so that matching a request path neither parses the patterns nor
+   * tokenizes the path again.
+   *
+   * @param patterns URL patterns, e.g. {@code /actuator/**}
+   * @return parsed patterns, empty if there are none
+   */
+  public static List<PathPattern> parseUrlPatterns(List<String> patterns) {
+    if (patterns == null) {
+      return List.of();
     }
-    return webExchange.getRequest().getURI().toString();
+    return patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
   }
 
-  public static String getRequestHttpMethod(ServerWebExchange webExchange) {
-    if (webExchange == null) {
-      return DEFAULT_REQUEST_METHOD;
+  public static boolean matchUrlsPatternsToPath(List<PathPattern> patterns, PathContainer path) {
+    for (PathPattern pattern : patterns) {
+      if (pattern.matches(path)) {
+        return true;
+      }
     }
-    return webExchange.getRequest().getMethod().name();
-  }
-
-  public static boolean matchUrlPatternToPath(String pattern, String path) {
-    return pathMatcher.match(pattern, path);
-  }
-
-  public static boolean matchUrlsPatternsToPath(List<String> patterns, String path) {
-    return patterns != null
-        && patterns.stream().anyMatch(pathPattern -> matchUrlPatternToPath(pathPattern, path));
-  }
-
-  public static Map<LogContextVariable, String> getRequestMetadata(
-      ServerWebExchange exchange, String traceIdHeaderName) {
-    var traceId = WebExchangeUtils.getRequestId(exchange, traceIdHeaderName);
-    var requestMethod = WebExchangeUtils.getRequestHttpMethod(exchange);
-    var requestUrl = WebExchangeUtils.getRequestUrl(exchange);
-
-    var logMessageMetadata = new EnumMap<LogContextVariable, String>(LogContextVariable.class);
-    logMessageMetadata.put(LogContextVariable.TRACE_ID, traceId);
-    logMessageMetadata.put(LogContextVariable.STATUS, StatusCode.REQUEST.name());
-    logMessageMetadata.put(LogContextVariable.NORTHBOUND_METHOD, requestMethod);
-    logMessageMetadata.put(LogContextVariable.NORTHBOUND_URL, requestUrl);
-
-    return logMessageMetadata;
+    return false;
   }
 }
@@ -0,0 +1,53 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import jakarta.transaction.Transactional;
+import org.onap.portalng.history.entities.ActionPayloadDao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ActionPayloadsRepository extends JpaRepository<ActionPayloadDao, String> {
+
+  // Concurrent writers of the same payload race on the primary key; the loser simply reuses the
+  // stored payload instead of failing the request.
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "INSERT INTO action_payloads (hash, payload) VALUES (:hash, CAST(:payload AS jsonb))"
+              + " ON CONFLICT (hash) DO NOTHING",
+      nativeQuery = true)
+  int insertIfAbsent(String hash, String payload);
+
+  @Modifying
+  @Transactional
+  @Query(
+      value =
+          "DELETE FROM action_payloads p"
+              + " WHERE NOT EXISTS (SELECT 1 FROM actions a WHERE a.payload_hash = p.hash)",
+      nativeQuery = true)
+  int deleteUnreferenced();
+}
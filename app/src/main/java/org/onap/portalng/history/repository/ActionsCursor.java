@@ -0,0 +1,186 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import static org.onap.portalng.history.repository.ActionsSql.ACTION_COLUMNS;
+import static org.onap.portalng.history.repository.ActionsSql.FROM_ACTIONS;
+import static org.onap.portalng.history.repository.ActionsSql.appendMatching;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reads actions through a forward-only database cursor in a read-only transaction. Rows are
+ * fetched in batches of the configured fetch size as the subscriber requests them, so only a few
+ * rows are held in memory no matter how many the query returns. The cursor keeps a pooled
+ * connection until the flux completes or is cancelled.
+ */
+@Slf4j
+@Repository
+public class ActionsCursor {
+
+  private static final String SELECT_CREATED_BETWEEN =
+      "SELECT "
+          + ACTION_COLUMNS
+          + FROM_ACTIONS
+          + " WHERE a.action_created_at >= ? AND a.action_created_at < ?";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final HistoryConfig historyConfig;
+
+  public ActionsCursor(
+      JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, HistoryConfig historyConfig) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.historyConfig = historyConfig;
+  }
+
+  /**
+   * Stream a page of the actions matching the query, newest first. Compressed payloads are returned
+   * as they are stored.
+   *
+   * @param query criteria of the actions
+   * @param offset number of matching actions that are skipped
+   * @param limit maximum number of actions
+   * @return the actions, read on a bounded elastic thread
+   */
+  public Flux<ActionsDao> streamMatching(ActionsQuery query, long offset, int limit) {
+    var sql = new StringBuilder();
+    var args = new ArrayList<Object>();
+    appendMatching(sql, args, query);
+    sql.append(" ORDER BY action_created_at DESC, id DESC LIMIT ? OFFSET ?");
+    args.add(limit);
+    args.add(offset);
+    // like the pages, only the ad-hoc payload queries are cancelled after the statement timeout
+    var statementTimeout =
+        query.hasPayloadPredicates() ? historyConfig.getFilter().statementTimeout() : Duration.ZERO;
+    return stream(sql.toString(), args, historyConfig.getStreaming().fetchSize(), statementTimeout);
+  }
+
+  /**
+   * Stream all actions of a timeframe, oldest first. The query is not cancelled after the
+   * statement timeout, an export of a large timeframe may take minutes.
+   *
+   * @param from lower bound (inclusive) of the creation date
+   * @param to upper bound (exclusive) of the creation date
+   * @param userId only actions of this user, all users if null
+   * @return the actions, read on a bounded elastic thread
+   */
+  public Flux<ActionsDao> streamCreatedBetween(Date from, Date to, String userId) {
+    var sql = new StringBuilder(SELECT_CREATED_BETWEEN);
+    var args = new ArrayList<Object>();
+    args.add(new Timestamp(from.getTime()));
+    args.add(new Timestamp(to.getTime()));
+    if (userId != null) {
+      sql.append(" AND a.user_id = ?");
+      args.add(userId);
+    }
+    sql.append(" ORDER BY a.action_created_at ASC");
+    return stream(sql.toString(), args, historyConfig.getExport().fetchSize(), Duration.ZERO);
+  }
+
+  private Flux<ActionsDao> stream(
+      String sql, List<Object> args, int fetchSize, Duration statementTimeout) {
+    // generate is pull based, every request of the subscriber reads the next rows
+    return Flux.using(
+            () -> open(sql, args, fetchSize, statementTimeout),
+            cursor -> Flux.<ActionsDao>generate(sink -> next(cursor, sink)),
+            this::close)
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  private Cursor open(String sql, List<Object> args, int fetchSize, Duration statementTimeout)
+      throws SQLException {
+    var connection = jdbcTemplate.getDataSource().getConnection();
+    try {
+      // PostgreSQL only honours the fetch size inside a transaction
+      connection.setAutoCommit(false);
+      connection.setReadOnly(true);
+      if (!statementTimeout.isZero()) {
+        try (var statement = connection.createStatement()) {
+          statement.execute("SET LOCAL statement_timeout = " + statementTimeout.toMillis());
+        }
+      }
+      var statement =
+          connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      statement.setFetchSize(fetchSize);
+      for (var i = 0; i < args.size(); i++) {
+        statement.setObject(i + 1, args.get(i));
+      }
+      return new Cursor(connection, statement, statement.executeQuery());
+    } catch (SQLException e) {
+      connection.close();
+      throw translate("Open actions cursor", e);
+    }
+  }
+
+  private void next(Cursor cursor, SynchronousSink<ActionsDao> sink) {
+    try {
+      if (cursor.resultSet().next()) {
+        sink.next(ActionsSql.toActionsDao(cursor.resultSet(), objectMapper));
+      } else {
+        sink.complete();
+      }
+    } catch (SQLException e) {
+      sink.error(translate("Read actions cursor", e));
+    }
+  }
+
+  private void close(Cursor cursor) {
+    try (var connection = cursor.connection();
+        var statement = cursor.statement()) {
+      connection.rollback();
+    } catch (SQLException e) {
+      log.warn("Actions cursor cannot be closed: {}", e.getMessage());
+    }
+  }
+
+  private RuntimeException translate(String task, SQLException e) {
+    if (ActionsSql.isQueryCanceled(e)) {
+      return new QueryTimeoutException(
+          "Query exceeded " + historyConfig.getFilter().statementTimeout(), e);
+    }
+    var translated = jdbcTemplate.getExceptionTranslator().translate(task, null, e);
+    return translated != null ? translated : new UncategorizedSQLException(task, null, e);
+  }
+
+  private record Cursor(Connection connection, PreparedStatement statement, ResultSet resultSet) {}
+}
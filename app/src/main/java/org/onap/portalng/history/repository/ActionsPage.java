@@ -0,0 +1,35 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import java.util.List;
+import org.onap.portalng.history.entities.ActionsDao;
+
+/**
+ * Page of actions read within the response byte budget, see {@link
+ * ActionsRepositoryCustom#findPage}.
+ *
+ * @param actions actions of the page, newest first. The payload of an action that alone exceeds
+ *     the budget is not read, see {@link ActionsDao#isPayloadOmitted()}.
+ * @param next position to continue from if the budget cut the page short, otherwise null
+ */
+public record ActionsPage(List<ActionsDao> actions, PageCursor next) {}
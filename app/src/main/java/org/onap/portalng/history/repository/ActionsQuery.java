@@ -0,0 +1,63 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria of a page query on the actions table that needs plain SQL, see {@link
+ * ActionsRepositoryCustom#findAllMatching}.
+ *
+ * @param userId only actions of this user, all users if null
+ * @param actionCreatedAfter lower bound (exclusive) of the creation date
+ * @param hotFieldMatches values the hot field columns have to be equal to
+ * @param containment JSON document the payload has to contain ({@code @>}), no filter if null
+ * @param projection parts of the payload that are returned, keyed by their pointer. The whole
+ *     payload is returned if empty.
+ * @param after only actions after this position of a previous page, from the start if null
+ */
+public record ActionsQuery(
+    String userId,
+    Date actionCreatedAfter,
+    Map<HotField, String> hotFieldMatches,
+    JsonNode containment,
+    List<JsonPointer> projection,
+    PageCursor after) {
+
+  /**
+   * @return whether the query filters on the payload
+   */
+  public boolean hasPayloadPredicates() {
+    return !hotFieldMatches.isEmpty() || containment != null;
+  }
+
+  /**
+   * @return whether the query can only be answered with plain SQL
+   */
+  public boolean needsSql() {
+    return hasPayloadPredicates() || !projection.isEmpty() || after != null;
+  }
+}
@@ -32,7 +32,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ActionsRepository extends JpaRepository<ActionsDao, String> {
+public interface ActionsRepository
+    extends JpaRepository<ActionsDao, String>, ActionsRepositoryCustom {
 
   List<ActionsDao> findAllByActionCreatedAtAfter(Pageable pageable, Date actionCreatedAt);
 
@@ -55,6 +56,6 @@ public interface ActionsRepository extends JpaRepository<ActionsDao, String> {
 
   @Modifying
   @Transactional
-  @Query(value = "TRUNCATE TABLE actions", nativeQuery = true)
+  @Query(value = "TRUNCATE TABLE actions CASCADE", nativeQuery = true)
   void truncateTable();
 }
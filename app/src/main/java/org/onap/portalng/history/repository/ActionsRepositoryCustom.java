@@ -0,0 +1,126 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Queries on the actions table that cannot be expressed as Spring Data derived or annotated
+ * queries. Implemented with plain JDBC in {@link ActionsRepositoryCustomImpl}.
+ */
+public interface ActionsRepositoryCustom {
+
+  /**
+   * Stream all actions created before the given date in ascending creation order through a
+   * server-side cursor. Must be called inside a transaction, otherwise the PostgreSQL driver
+   * ignores the fetch size and materializes the whole result.
+   *
+   * @param actionCreatedAt upper bound (exclusive) of the creation date
+   * @param fetchSize number of rows fetched per round trip
+   * @param consumer receives every row; the row is not kept after the call returns
+   * @return number of streamed rows
+   */
+  long streamAllByActionCreatedAtBefore(
+      Date actionCreatedAt, int fetchSize, Consumer<ActionsDao> consumer);
+
+  /**
+   * Page through the actions matching the query, newest first. Inline payloads are matched on the
+   * actions table, deduplicated payloads on action_payloads. Compressed payloads never match a hot
+   * field or containment filter. The query is cancelled after {@code
+   * history.filter.statement-timeout}.
+   *
+   * @param query criteria of the actions
+   * @param pageable offset and size of the page; the sort is always by creation date descending
+   * @return actions of the page
+   */
+  List<ActionsDao> findAllMatching(ActionsQuery query, Pageable pageable);
+
+  /**
+   * Same as {@link #findAllMatching} but stops adding actions once their payloads exceed the byte
+   * budget. The budget is checked against the stored sizes before any payload is read, the first
+   * action is always returned, without its payload if that alone exceeds the budget.
+   *
+   * @param query criteria of the actions
+   * @param pageable offset and size of the page; the sort is always by creation date descending
+   * @param maxBytes byte budget of the payloads of the page
+   * @return actions of the page and the position to continue from if the page was cut short
+   */
+  ActionsPage findPage(ActionsQuery query, Pageable pageable, long maxBytes);
+
+  /**
+   * Full-text search over the indexed actions, ordered by rank and then newest first. The query is
+   * cancelled after {@code history.filter.statement-timeout}.
+   *
+   * @param search criteria of the search
+   * @return hits of the page
+   */
+  List<SearchHit> search(ActionsSearch search);
+
+  /**
+   * Find actions whose search vector has not been built yet, newest first.
+   *
+   * @param actionCreatedAt lower bound (exclusive) of the creation date
+   * @param limit maximum number of actions
+   * @return the actions with their payloads
+   */
+  List<ActionsDao> findAllUnindexed(Date actionCreatedAt, int limit);
+
+  /**
+   * Build the search vectors of the given actions in one batch.
+   *
+   * @param searchDocuments text to index by action id
+   */
+  void updateSearchDocuments(Map<String, String> searchDocuments);
+
+  /**
+   * Make the action the newest entry of its user for the given key values, unless a newer action
+   * is already recorded for a value.
+   *
+   * @param action the stored action
+   * @param keyValues value of the payload field by key pointer
+   */
+  void upsertRecentActions(ActionsDao action, Map<String, String> keyValues);
+
+  /**
+   * Find the newest action of a user for every distinct value of a key, newest first.
+   *
+   * @param userId the user
+   * @param keyPointer key the entries were recorded for
+   * @param limit maximum number of actions
+   * @return the actions with their payloads
+   */
+  List<ActionsDao> findRecentDistinct(String userId, String keyPointer, int limit);
+
+  /**
+   * Count a repetition of the action and move its creation date forward.
+   *
+   * @param id id of the repeated action
+   * @param actionCreatedAt creation date of the repetition
+   * @return the new repeat count, null if the action does not exist anymore
+   */
+  Integer coalesce(String id, Date actionCreatedAt);
+}
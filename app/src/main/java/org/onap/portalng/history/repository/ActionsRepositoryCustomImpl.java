@@ -0,0 +1,306 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import static org.onap.portalng.history.repository.ActionsSql.ACTION_COLUMNS;
+import static org.onap.portalng.history.repository.ActionsSql.FROM_ACTIONS;
+import static org.onap.portalng.history.repository.ActionsSql.appendMatching;
+import static org.onap.portalng.history.repository.ActionsSql.appendMatchingSizes;
+import static org.onap.portalng.history.repository.ActionsSql.appendPayload;
+import static org.onap.portalng.history.repository.ActionsSql.isQueryCanceled;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ActionsRepositoryCustomImpl implements ActionsRepositoryCustom {
+
+  // running size of the payloads in page order, the first action is never cut
+  private static final String BUDGETED =
+      ", budgeted AS (SELECT id, payload_size,"
+          + " sum(payload_size) OVER w AS running_size, row_number() OVER w AS position,"
+          + " count(*) OVER () AS page_rows,"
+          + " (row_number() OVER w = 1 AND payload_size > ?) AS omitted"
+          + " FROM page WINDOW w AS (ORDER BY action_created_at DESC, id DESC))";
+
+  private static final String SELECT_CREATED_BEFORE =
+      "SELECT "
+          + ACTION_COLUMNS
+          + FROM_ACTIONS
+          + " WHERE a.action_created_at < ? ORDER BY a.action_created_at ASC";
+
+  // the rank is computed in the inner query so that the keyset condition can refer to it
+  private static final String SEARCH =
+      "SELECT * FROM (SELECT "
+          + ACTION_COLUMNS
+          + ", ts_rank(a.search_vector, q.query) AS rank"
+          + FROM_ACTIONS
+          + " CROSS JOIN websearch_to_tsquery('simple', ?) AS q(query)"
+          + " WHERE a.search_vector @@ q.query AND a.action_created_at > ?";
+
+  private static final String SELECT_UNINDEXED =
+      "SELECT "
+          + ACTION_COLUMNS
+          + FROM_ACTIONS
+          + " WHERE a.search_vector IS NULL AND a.action_created_at > ?"
+          + " ORDER BY a.action_created_at DESC LIMIT ?";
+
+  private static final String UPDATE_SEARCH_VECTOR =
+      "UPDATE actions SET search_vector = to_tsvector('simple', ?) WHERE id = ?";
+
+  // out-of-order inserts must not replace a newer entry
+  private static final String UPSERT_RECENT_ACTION =
+      "INSERT INTO recent_actions"
+          + " (user_id, key_pointer, key_value, action_id, action_created_at)"
+          + " VALUES (?, ?, ?, ?, ?)"
+          + " ON CONFLICT (user_id, key_pointer, key_value) DO UPDATE"
+          + " SET action_id = EXCLUDED.action_id, action_created_at = EXCLUDED.action_created_at"
+          + " WHERE recent_actions.action_created_at <= EXCLUDED.action_created_at";
+
+  private static final String SELECT_RECENT_DISTINCT =
+      "SELECT "
+          + ACTION_COLUMNS
+          + " FROM recent_actions r JOIN actions a ON a.id = r.action_id"
+          + " LEFT JOIN action_payloads p ON p.hash = a.payload_hash"
+          + " WHERE r.user_id = ? AND r.key_pointer = ?"
+          + " ORDER BY r.action_created_at DESC LIMIT ?";
+
+  private static final String COALESCE =
+      "UPDATE actions SET action_created_at = ?, repeat_count = repeat_count + 1"
+          + " WHERE id = ? RETURNING repeat_count";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final HistoryConfig.Filter filterConfig;
+  private final TransactionTemplate readOnlyTransaction;
+
+  ActionsRepositoryCustomImpl(
+      JdbcTemplate jdbcTemplate,
+      ObjectMapper objectMapper,
+      HistoryConfig historyConfig,
+      PlatformTransactionManager transactionManager) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.filterConfig = historyConfig.getFilter();
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+  }
+
+  @Override
+  public List<ActionsDao> findAllMatching(ActionsQuery query, Pageable pageable) {
+    var sql = new StringBuilder();
+    var args = new ArrayList<Object>();
+    appendMatching(sql, args, query);
+    sql.append(" ORDER BY action_created_at DESC, id DESC LIMIT ? OFFSET ?");
+    args.add(pageable.getPageSize());
+    args.add(pageable.getOffset());
+    return query(query, sql.toString(), (rs, rowNum) -> toActionsDao(rs), args);
+  }
+
+  // The page is selected on ids and stored sizes first, only the payloads within the budget are
+  // read afterwards.
+  @Override
+  public ActionsPage findPage(ActionsQuery query, Pageable pageable, long maxBytes) {
+    var sql = new StringBuilder("WITH page AS (");
+    var args = new ArrayList<Object>();
+    appendMatchingSizes(sql, args, query);
+    sql.append(" ORDER BY action_created_at DESC, id DESC LIMIT ? OFFSET ?)");
+    args.add(pageable.getPageSize());
+    args.add(pageable.getOffset());
+    sql.append(BUDGETED);
+    args.add(maxBytes);
+    sql.append(" SELECT a.id, a.user_id, a.action_created_at,");
+    sql.append(" CASE WHEN b.omitted THEN NULL ELSE ");
+    appendPayload(sql, args, query.projection());
+    sql.append(" END AS action,");
+    sql.append(" CASE WHEN b.omitted THEN NULL ELSE a.action_compressed END AS action_compressed,");
+    sql.append(" a.repeat_count, b.omitted, b.page_rows");
+    sql.append(" FROM budgeted b JOIN actions a ON a.id = b.id");
+    sql.append(" LEFT JOIN action_payloads p ON p.hash = a.payload_hash");
+    sql.append(" WHERE b.running_size <= ? OR b.position = 1 ORDER BY b.position");
+    args.add(maxBytes);
+
+    var pageRows = new AtomicLong();
+    var actions =
+        query(
+            query,
+            sql.toString(),
+            (rs, rowNum) -> {
+              pageRows.set(rs.getLong("page_rows"));
+              var action = toActionsDao(rs);
+              action.setPayloadOmitted(rs.getBoolean("omitted"));
+              return action;
+            },
+            args);
+    if (actions.size() == pageRows.get()) {
+      return new ActionsPage(actions, null);
+    }
+    var last = actions.get(actions.size() - 1);
+    return new ActionsPage(
+        actions, new PageCursor(last.getActionCreatedAt().getTime(), last.getId()));
+  }
+
+  @Override
+  public List<SearchHit> search(ActionsSearch search) {
+    var sql = new StringBuilder(SEARCH);
+    var args = new ArrayList<Object>();
+    args.add(search.text());
+    args.add(new Timestamp(search.actionCreatedAfter().getTime()));
+    if (search.userId() != null) {
+      sql.append(" AND a.user_id = ?");
+      args.add(search.userId());
+    }
+    sql.append(") hits");
+    if (search.after() != null) {
+      sql.append(" WHERE (rank, action_created_at, id) < (CAST(? AS real), ?, ?)");
+      args.add(search.after().rank());
+      args.add(new Timestamp(search.after().actionCreatedAt()));
+      args.add(search.after().id());
+    }
+    sql.append(" ORDER BY rank DESC, action_created_at DESC, id DESC LIMIT ?");
+    args.add(search.limit());
+    return queryWithTimeout(
+        sql.toString(), (rs, rowNum) -> new SearchHit(toActionsDao(rs), rs.getFloat("rank")), args);
+  }
+
+  @Override
+  public List<ActionsDao> findAllUnindexed(Date actionCreatedAt, int limit) {
+    return jdbcTemplate.query(
+        SELECT_UNINDEXED,
+        (rs, rowNum) -> toActionsDao(rs),
+        new Timestamp(actionCreatedAt.getTime()),
+        limit);
+  }
+
+  @Override
+  public void updateSearchDocuments(Map<String, String> searchDocuments) {
+    jdbcTemplate.batchUpdate(
+        UPDATE_SEARCH_VECTOR,
+        searchDocuments.entrySet().stream()
+            .map(entry -> new Object[] {entry.getValue(), entry.getKey()})
+            .toList());
+  }
+
+  @Override
+  public void upsertRecentActions(ActionsDao action, Map<String, String> keyValues) {
+    var createdAt = new Timestamp(action.getActionCreatedAt().getTime());
+    jdbcTemplate.batchUpdate(
+        UPSERT_RECENT_ACTION,
+        keyValues.entrySet().stream()
+            .map(
+                entry ->
+                    new Object[] {
+                      action.getUserId(),
+                      entry.getKey(),
+                      entry.getValue(),
+                      action.getId(),
+                      createdAt
+                    })
+            .toList());
+  }
+
+  @Override
+  public List<ActionsDao> findRecentDistinct(String userId, String keyPointer, int limit) {
+    return jdbcTemplate.query(
+        SELECT_RECENT_DISTINCT, (rs, rowNum) -> toActionsDao(rs), userId, keyPointer, limit);
+  }
+
+  @Override
+  public Integer coalesce(String id, Date actionCreatedAt) {
+    var repeatCounts =
+        jdbcTemplate.queryForList(
+            COALESCE, Integer.class, new Timestamp(actionCreatedAt.getTime()), id);
+    return repeatCounts.isEmpty() ? null : repeatCounts.get(0);
+  }
+
+  // Only payload predicates can make a listing scan the table, plain listings are not cancelled.
+  private <T> List<T> query(
+      ActionsQuery query, String sql, RowMapper<T> rowMapper, List<Object> args) {
+    return query.hasPayloadPredicates()
+        ? queryWithTimeout(sql, rowMapper, args)
+        : jdbcTemplate.query(sql, rowMapper, args.toArray());
+  }
+
+  /**
+   * Run an ad-hoc query that the database cancels after {@code history.filter.statement-timeout}.
+   *
+   * @throws QueryTimeoutException if the query was cancelled
+   */
+  private <T> List<T> queryWithTimeout(String sql, RowMapper<T> rowMapper, List<Object> args) {
+    try {
+      // SET LOCAL only lasts until the end of the surrounding transaction
+      return readOnlyTransaction.execute(
+          status -> {
+            jdbcTemplate.execute(
+                "SET LOCAL statement_timeout = " + filterConfig.statementTimeout().toMillis());
+            return jdbcTemplate.query(sql, rowMapper, args.toArray());
+          });
+    } catch (DataAccessException e) {
+      if (isQueryCanceled(e.getMostSpecificCause())) {
+        throw new QueryTimeoutException(
+            "Query exceeded " + filterConfig.statementTimeout(), e.getMostSpecificCause());
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public long streamAllByActionCreatedAtBefore(
+      Date actionCreatedAt, int fetchSize, Consumer<ActionsDao> consumer) {
+    var rows = new AtomicLong();
+    PreparedStatementCreator statement =
+        connection -> {
+          var ps = connection.prepareStatement(SELECT_CREATED_BEFORE);
+          ps.setFetchSize(fetchSize);
+          ps.setTimestamp(1, new Timestamp(actionCreatedAt.getTime()));
+          return ps;
+        };
+    jdbcTemplate.query(
+        statement,
+        rs -> {
+          consumer.accept(toActionsDao(rs));
+          rows.incrementAndGet();
+        });
+    return rows.get();
+  }
+
+  private ActionsDao toActionsDao(ResultSet rs) throws SQLException {
+    return ActionsSql.toActionsDao(rs, objectMapper);
+  }
+}
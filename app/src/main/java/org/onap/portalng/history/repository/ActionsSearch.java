@@ -0,0 +1,36 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import java.util.Date;
+
+/**
+ * Criteria of a full-text search on the actions table, see {@link ActionsRepositoryCustom#search}.
+ *
+ * @param text search text in web search syntax, e.g. {@code policy editor -delete}
+ * @param userId only actions of this user, all users if null
+ * @param actionCreatedAfter lower bound (exclusive) of the creation date
+ * @param after position after which the page starts, first page if null
+ * @param limit maximum number of hits
+ */
+public record ActionsSearch(
+    String text, String userId, Date actionCreatedAfter, SearchCursor after, int limit) {}
@@ -0,0 +1,168 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.onap.portalng.history.entities.ActionsDao;
+
+/** SQL fragments and row mapping shared by the plain SQL queries on the actions table. */
+final class ActionsSql {
+
+  // deduplicated payloads are resolved in the query, compressed payloads by the caller
+  static final String ACTION_COLUMNS =
+      "a.id, a.user_id, a.action_created_at, coalesce(a.action, p.payload) AS action,"
+          + " a.action_compressed, a.repeat_count";
+  static final String FROM_ACTIONS =
+      " FROM actions a LEFT JOIN action_payloads p ON p.hash = a.payload_hash";
+
+  // stored (possibly compressed) size, pg_column_size does not detoast the value
+  static final String PAYLOAD_SIZE =
+      "coalesce(pg_column_size(a.action), pg_column_size(p.payload), 0)"
+          + " + coalesce(pg_column_size(a.action_compressed), 0)";
+
+  static final String QUERY_CANCELED = "57014";
+
+  private ActionsSql() {}
+
+  /**
+   * Append the select of the actions matching the query, without ordering and limit.
+   *
+   * <p>A row carries its payload either inline or deduplicated, never both. Matching each kind in
+   * its own branch keeps the indexes of both tables usable.
+   */
+  static void appendMatching(StringBuilder sql, List<Object> args, ActionsQuery query) {
+    appendBranch(sql, args, query, "a", "a.action", false);
+    if (query.hasPayloadPredicates()) {
+      sql.append(" UNION ALL ");
+      appendBranch(sql, args, query, "p", "p.payload", false);
+    }
+  }
+
+  /**
+   * Same as {@link #appendMatching} but only selects the id, the creation date and the stored size
+   * of the payload ({@code payload_size}). The size is read from the tuple or TOAST pointer header,
+   * the payload itself is not read.
+   */
+  static void appendMatchingSizes(StringBuilder sql, List<Object> args, ActionsQuery query) {
+    appendBranch(sql, args, query, "a", "a.action", true);
+    if (query.hasPayloadPredicates()) {
+      sql.append(" UNION ALL ");
+      appendBranch(sql, args, query, "p", "p.payload", true);
+    }
+  }
+
+  // Only the projected fragments leave the database. Compressed payloads cannot be projected in
+  // SQL, their column is still returned for the caller.
+  static void appendPayload(StringBuilder sql, List<Object> args, List<JsonPointer> projection) {
+    if (projection.isEmpty()) {
+      sql.append("coalesce(a.action, p.payload)");
+      return;
+    }
+    sql.append("jsonb_build_object(");
+    for (var i = 0; i < projection.size(); i++) {
+      var pointer = projection.get(i);
+      var segments = new ArrayList<String>();
+      for (var tail = pointer; !tail.matches(); tail = tail.tail()) {
+        segments.add(tail.getMatchingProperty());
+      }
+      var placeholders = String.join(", ", Collections.nCopies(segments.size(), "?"));
+      sql.append(i == 0 ? "" : ", ").append("CAST(? AS text), coalesce(a.action, p.payload) #> ");
+      sql.append("CAST(ARRAY[").append(placeholders).append("] AS text[])");
+      args.add(pointer.toString());
+      args.addAll(segments);
+    }
+    sql.append(")");
+  }
+
+  private static void appendBranch(
+      StringBuilder sql,
+      List<Object> args,
+      ActionsQuery query,
+      String matchedTable,
+      String matchedPayload,
+      boolean sizesOnly) {
+    sql.append("SELECT ");
+    if (sizesOnly) {
+      sql.append("a.id, a.action_created_at, ").append(PAYLOAD_SIZE).append(" AS payload_size");
+    } else {
+      sql.append("a.id, a.user_id, a.action_created_at, ");
+      appendPayload(sql, args, query.projection());
+      sql.append(" AS action, a.action_compressed, a.repeat_count");
+    }
+    sql.append(FROM_ACTIONS);
+    sql.append(" WHERE a.action_created_at > ?");
+    args.add(new Timestamp(query.actionCreatedAfter().getTime()));
+    if (query.userId() != null) {
+      sql.append(" AND a.user_id = ?");
+      args.add(query.userId());
+    }
+    if (query.after() != null) {
+      sql.append(" AND (a.action_created_at, a.id) < (?, ?)");
+      args.add(new Timestamp(query.after().actionCreatedAt()));
+      args.add(query.after().id());
+    }
+    query
+        .hotFieldMatches()
+        .forEach(
+            (hotField, value) -> {
+              sql.append(" AND ").append(matchedTable).append('.').append(hotField.column());
+              sql.append(" = ?");
+              args.add(value);
+            });
+    if (query.containment() != null) {
+      sql.append(" AND ").append(matchedPayload).append(" @> CAST(? AS jsonb)");
+      args.add(query.containment().toString());
+    }
+  }
+
+  /**
+   * @return whether the database cancelled the statement, e.g. after the statement timeout
+   */
+  static boolean isQueryCanceled(Throwable cause) {
+    return cause instanceof SQLException sqlException
+        && QUERY_CANCELED.equals(sqlException.getSQLState());
+  }
+
+  static ActionsDao toActionsDao(ResultSet rs, ObjectMapper objectMapper) throws SQLException {
+    var actionsDao = new ActionsDao();
+    actionsDao.setId(rs.getString("id"));
+    actionsDao.setUserId(rs.getString("user_id"));
+    actionsDao.setActionCreatedAt(rs.getTimestamp("action_created_at"));
+    try {
+      var action = rs.getString("action");
+      actionsDao.setAction(action == null ? null : objectMapper.readTree(action));
+    } catch (JsonProcessingException e) {
+      throw new SQLException("Stored action of " + actionsDao.getId() + " is not valid JSON", e);
+    }
+    actionsDao.setActionCompressed(rs.getBytes("action_compressed"));
+    actionsDao.setRepeatCount(rs.getInt("repeat_count"));
+    return actionsDao;
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A JSON field of the action payload that is materialized as a generated column, see {@link
+ * HotFieldsChange}. The path and the derived column name are validated here because both end up in
+ * DDL and SQL statements.
+ *
+ * @param path dot separated path relative to the payload, e.g. {@code target.id}
+ * @param column name of the generated column, e.g. {@code hot_target_id}
+ */
+public record HotField(String path, String column) {
+
+  public static final String COLUMN_PREFIX = "hot_";
+
+  private static final Pattern SEGMENT = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+  private static final int MAX_IDENTIFIER_LENGTH = 63;
+
+  /**
+   * @param path dot separated path relative to the payload
+   * @return the hot field of the path
+   * @throws IllegalArgumentException if the path is no valid hot field path
+   */
+  public static HotField of(String path) {
+    var segments = path.split("\\.", -1);
+    for (var segment : segments) {
+      if (!SEGMENT.matcher(segment).matches()) {
+        throw new IllegalArgumentException("Invalid hot field path: " + path);
+      }
+    }
+    var column =
+        COLUMN_PREFIX
+            + String.join("_", segments).replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase();
+    // leave room for the index name
+    if (column.length() > MAX_IDENTIFIER_LENGTH - "idx_action_payloads_".length()) {
+      throw new IllegalArgumentException("Hot field path is too long: " + path);
+    }
+    return new HotField(path, column);
+  }
+
+  /**
+   * @param paths dot separated paths, blank entries are ignored
+   * @return the hot fields of the paths
+   * @throws IllegalArgumentException if a path is invalid or two paths map to the same column
+   */
+  public static List<HotField> of(Collection<String> paths) {
+    var hotFields =
+        paths.stream().map(String::trim).filter(path -> !path.isEmpty()).map(HotField::of).toList();
+    var columns = new HashSet<String>();
+    for (var hotField : hotFields) {
+      if (!columns.add(hotField.column())) {
+        throw new IllegalArgumentException("Duplicate hot field column: " + hotField.column());
+      }
+    }
+    return hotFields;
+  }
+
+  /**
+   * @param paths comma separated paths as passed in by Liquibase
+   * @return the hot fields of the paths
+   */
+  public static List<HotField> parse(String paths) {
+    return of(paths == null ? List.of() : Arrays.asList(paths.split(",")));
+  }
+
+  /**
+   * @param jsonColumn qualified jsonb column the field is extracted from
+   * @return SQL expression extracting the field as text
+   */
+  public String expression(String jsonColumn) {
+    return "(" + jsonColumn + " #>> '{" + path.replace('.', ',') + "}')";
+  }
+}
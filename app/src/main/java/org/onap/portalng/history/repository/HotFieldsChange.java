@@ -0,0 +1,199 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Liquibase change that keeps the generated hot field columns of the actions and action_payloads
+ * tables in line with {@code history.hot-fields.paths}. Missing columns are added and indexed
+ * concurrently, columns of fields that are no longer configured are only dropped if {@code
+ * history.hot-fields.drop-undeclared} is set. Runs on every start, outside of a transaction.
+ */
+@Setter
+@Slf4j
+public class HotFieldsChange implements CustomTaskChange {
+
+  private static final String SELECT_HOT_COLUMNS =
+      "SELECT column_name FROM information_schema.columns"
+          + " WHERE table_schema = current_schema() AND table_name = ? AND column_name LIKE ?";
+
+  // actions are paged by creation date, the payload table is only probed by value
+  private static final List<PayloadTable> TABLES =
+      List.of(
+          new PayloadTable("actions", "action", ", action_created_at DESC"),
+          new PayloadTable("action_payloads", "payload", ""));
+
+  // an ALTER TABLE waits for running queries and every later query would queue behind it, the
+  // index builds wait for running transactions as well but do not block the queries
+  private static final String LOCK_TIMEOUT = "SET lock_timeout = '5s'";
+
+  /** Comma separated hot field paths, set from the changelog parameter */
+  private String paths;
+
+  /** Drop the columns of undeclared hot fields, set from the changelog parameter */
+  private String dropUndeclared;
+
+  @Override
+  public void execute(Database database) throws CustomChangeException {
+    var hotFields = HotField.parse(paths);
+    var connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+    try {
+      // CREATE INDEX CONCURRENTLY cannot run inside a transaction block
+      var autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(true);
+      try {
+        for (var table : TABLES) {
+          update(connection, table, hotFields);
+        }
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    } catch (SQLException e) {
+      throw new CustomChangeException("Hot field columns cannot be updated", e);
+    }
+  }
+
+  private void update(Connection connection, PayloadTable table, List<HotField> hotFields)
+      throws SQLException {
+    var existing = existingColumns(connection, table.name());
+    var declared = new HashSet<String>();
+    for (var hotField : hotFields) {
+      declared.add(hotField.column());
+      if (!existing.contains(hotField.column())) {
+        addColumn(connection, table, hotField);
+      }
+      // also for existing columns, a previous run may have failed between column and index
+      createIndex(connection, table, hotField);
+    }
+    for (var column : existing) {
+      if (declared.contains(column)) {
+        continue;
+      }
+      if (Boolean.parseBoolean(dropUndeclared)) {
+        alter(connection, "ALTER TABLE " + table.name() + " DROP COLUMN " + column);
+      } else {
+        log.warn("Hot field column {}.{} is no longer declared and kept", table.name(), column);
+      }
+    }
+  }
+
+  /** The generated column is computed for every row, this rewrites the table once. */
+  private void addColumn(Connection connection, PayloadTable table, HotField hotField)
+      throws SQLException {
+    alter(
+        connection,
+        "ALTER TABLE "
+            + table.name()
+            + " ADD COLUMN "
+            + hotField.column()
+            + " text GENERATED ALWAYS AS "
+            + hotField.expression(table.payloadColumn())
+            + " STORED");
+  }
+
+  private void createIndex(Connection connection, PayloadTable table, HotField hotField)
+      throws SQLException {
+    execute(
+        connection,
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_"
+            + table.name()
+            + "_"
+            + hotField.column()
+            + " ON "
+            + table.name()
+            + " ("
+            + hotField.column()
+            + table.indexSuffix()
+            + ")");
+  }
+
+  private Set<String> existingColumns(Connection connection, String table) throws SQLException {
+    var columns = new HashSet<String>();
+    try (var statement = connection.prepareStatement(SELECT_HOT_COLUMNS)) {
+      statement.setString(1, table);
+      statement.setString(2, HotField.COLUMN_PREFIX.replace("_", "\\_") + "%");
+      try (var rs = statement.executeQuery()) {
+        while (rs.next()) {
+          columns.add(rs.getString(1));
+        }
+      }
+    }
+    return columns;
+  }
+
+  private void alter(Connection connection, String sql) throws SQLException {
+    execute(connection, LOCK_TIMEOUT);
+    try {
+      execute(connection, sql);
+    } finally {
+      execute(connection, "RESET lock_timeout");
+    }
+  }
+
+  private void execute(Connection connection, String sql) throws SQLException {
+    try (var statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  @Override
+  public String getConfirmationMessage() {
+    return "Hot field columns updated for: " + paths;
+  }
+
+  @Override
+  public void setUp() throws SetupException {
+    // nothing to set up
+  }
+
+  @Override
+  public void setFileOpener(ResourceAccessor resourceAccessor) {
+    // no resources needed
+  }
+
+  @Override
+  public ValidationErrors validate(Database database) {
+    var errors = new ValidationErrors();
+    try {
+      HotField.parse(paths);
+    } catch (IllegalArgumentException e) {
+      errors.addError(e.getMessage());
+    }
+    return errors;
+  }
+
+  private record PayloadTable(String name, String payloadColumn, String indexSuffix) {}
+}
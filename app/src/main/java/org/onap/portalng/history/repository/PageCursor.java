@@ -0,0 +1,60 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last action of a list page that was cut short by the response byte budget.
+ * List pages are ordered by creation date and id, both descending, so the two values identify the
+ * position of an action exactly.
+ *
+ * @param actionCreatedAt creation date of the last action in epoch milliseconds
+ * @param id id of the last action
+ */
+public record PageCursor(long actionCreatedAt, String id) {
+
+  /**
+   * @return opaque, URL safe representation of the cursor
+   */
+  public String encode() {
+    var value = actionCreatedAt + ":" + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param cursor representation created by {@link #encode()}
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static PageCursor decode(String cursor) {
+    var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    var parts = value.split(":", 2);
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Malformed page cursor: " + cursor);
+    }
+    return new PageCursor(Long.parseLong(parts[0]), parts[1]);
+  }
+}
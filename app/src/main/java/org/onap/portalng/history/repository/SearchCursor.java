@@ -0,0 +1,60 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last hit of a search page. Search results are ordered by rank, creation date
+ * and id, all descending, so the three values identify the position of a hit exactly.
+ *
+ * @param rank rank of the last hit
+ * @param actionCreatedAt creation date of the last hit in epoch milliseconds
+ * @param id id of the last hit
+ */
+public record SearchCursor(float rank, long actionCreatedAt, String id) {
+
+  /**
+   * @return opaque, URL safe representation of the cursor
+   */
+  public String encode() {
+    var value = rank + ":" + actionCreatedAt + ":" + id;
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param cursor representation created by {@link #encode()}
+   * @return the decoded cursor
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static SearchCursor decode(String cursor) {
+    var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    var parts = value.split(":", 3);
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Malformed search cursor: " + cursor);
+    }
+    return new SearchCursor(Float.parseFloat(parts[0]), Long.parseLong(parts[1]), parts[2]);
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.repository;
+
+import org.onap.portalng.history.entities.ActionsDao;
+
+/**
+ * Action found by a full-text search.
+ *
+ * @param action the action
+ * @param rank relevance of the action for the search text
+ */
+public record SearchHit(ActionsDao action, float rank) {
+
+  /**
+   * @return cursor pointing behind this hit
+   */
+  public SearchCursor cursor() {
+    return new SearchCursor(rank, action.getActionCreatedAt().getTime(), action.getId());
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Date;
+import java.util.Optional;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.util.LruCache;
+import org.springframework.stereotype.Service;
+
+/**
+ * Merges repeated identical actions of a user into the last stored action, see {@link
+ * HistoryConfig.Coalescing}. Coalesced actions are counted in {@code history.actions.coalesced}.
+ *
+ * <p>All methods block and have to be called from a thread that is allowed to block.
+ */
+@Service
+public class ActionCoalescer {
+
+  private final ActionsRepository repository;
+  private final HistoryConfig.Coalescing coalescingConfig;
+  private final LruCache<String, LastAction> lastActions;
+  private final Counter coalesced;
+
+  public ActionCoalescer(
+      ActionsRepository repository, HistoryConfig historyConfig, MeterRegistry meterRegistry) {
+    this.repository = repository;
+    this.coalescingConfig = historyConfig.getCoalescing();
+    this.lastActions = new LruCache<>(coalescingConfig.cacheSize());
+    this.coalesced =
+        Counter.builder("history.actions.coalesced")
+            .description("Actions merged into the previous identical action of the user")
+            .register(meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return coalescingConfig.enabled();
+  }
+
+  /**
+   * Merge the action into the last action of the user if both payloads are equal and the last
+   * action is recent enough.
+   *
+   * @param userId the user of the action
+   * @param actionCreatedAt creation date of the new action
+   * @param hash hash of the canonical payload of the new action
+   * @param action payload of the new action
+   * @return the updated last action, empty if the new action has to be inserted
+   */
+  public Optional<ActionsDao> coalesce(
+      String userId, Date actionCreatedAt, String hash, JsonNode action) {
+    var last = lastActions.get(userId);
+    if (last == null || !last.hash().equals(hash)) {
+      return Optional.empty();
+    }
+    var elapsed = actionCreatedAt.getTime() - last.actionCreatedAt().getTime();
+    if (elapsed < 0 || elapsed > coalescingConfig.window().toMillis()) {
+      return Optional.empty();
+    }
+    // the last action may have been deleted in the meantime
+    var repeatCount = repository.coalesce(last.id(), actionCreatedAt);
+    if (repeatCount == null) {
+      lastActions.remove(userId);
+      return Optional.empty();
+    }
+    lastActions.put(userId, new LastAction(last.id(), hash, actionCreatedAt));
+    coalesced.increment();
+
+    var actionsDao = new ActionsDao();
+    actionsDao.setId(last.id());
+    actionsDao.setUserId(userId);
+    actionsDao.setActionCreatedAt(actionCreatedAt);
+    actionsDao.setAction(action);
+    actionsDao.setRepeatCount(repeatCount);
+    return Optional.of(actionsDao);
+  }
+
+  /**
+   * Remember an inserted action as the last action of its user.
+   *
+   * @param saved the inserted action
+   * @param hash hash of the canonical payload of the action
+   */
+  public void remember(ActionsDao saved, String hash) {
+    lastActions.put(
+        saved.getUserId(), new LastAction(saved.getId(), hash, saved.getActionCreatedAt()));
+  }
+
+  private record LastAction(String id, String hash, Date actionCreatedAt) {}
+}
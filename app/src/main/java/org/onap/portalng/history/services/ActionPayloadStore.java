@@ -0,0 +1,209 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.entities.ActionPayloadDao;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.onap.portalng.history.repository.ActionPayloadsRepository;
+import org.onap.portalng.history.util.LruCache;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Content-addressed store for action payloads. Payloads are canonicalized (object fields sorted by
+ * name) and hashed with SHA-256, so equal payloads are stored only once. A bounded cache maps the
+ * hashes of hot payloads to their content and saves the lookup on the write and the read path.
+ *
+ * <p>All methods except {@link #deleteUnreferencedPayloads()} block and have to be called from a
+ * thread that is allowed to block.
+ */
+@Service
+public class ActionPayloadStore {
+
+  private final ActionPayloadsRepository repository;
+  private final ObjectMapper objectMapper;
+  private final LruCache<String, JsonNode> payloads;
+
+  public ActionPayloadStore(
+      ActionPayloadsRepository repository, ObjectMapper objectMapper, HistoryConfig historyConfig) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.payloads = new LruCache<>(historyConfig.getPayloadDedup().cacheSize());
+  }
+
+  /**
+   * Store the payload if it is not stored yet
+   *
+   * @param payload the action payload
+   * @return hash of the canonical payload, which references the stored payload
+   */
+  public String store(JsonNode payload) {
+    var canonical = canonicalize(payload);
+    var bytes = toBytes(canonical);
+    var hash = hashOf(bytes);
+    if (payloads.get(hash) == null) {
+      insert(hash, canonical, bytes);
+    }
+    return hash;
+  }
+
+  /**
+   * Store the payload if it is not stored yet, under a hash computed before with {@link
+   * #hash(JsonNode)}. A cached payload is neither canonicalized nor hashed again.
+   *
+   * @param payload the action payload
+   * @param hash hash of the canonical payload
+   * @return the given hash, which references the stored payload
+   */
+  public String store(JsonNode payload, String hash) {
+    if (payloads.get(hash) == null) {
+      var canonical = canonicalize(payload);
+      insert(hash, canonical, toBytes(canonical));
+    }
+    return hash;
+  }
+
+  /**
+   * Hash the payload without storing it
+   *
+   * @param payload the action payload
+   * @return hash of the canonical payload, equal payloads have equal hashes
+   */
+  public String hash(JsonNode payload) {
+    return hashOf(toBytes(canonicalize(payload)));
+  }
+
+  /**
+   * Set the payload of all given actions that reference a deduplicated payload. Payloads missing
+   * in the cache are loaded with a single query.
+   *
+   * @param actions actions as returned from the repository, they must not be managed anymore
+   * @return the given actions
+   */
+  public <T extends Collection<ActionsDao>> T resolve(T actions) {
+    var missing = new HashSet<String>();
+    for (var action : actions) {
+      if (action.getAction() == null && action.getPayloadHash() != null) {
+        var payload = payloads.get(action.getPayloadHash());
+        if (payload != null) {
+          action.setAction(payload);
+        } else {
+          missing.add(action.getPayloadHash());
+        }
+      }
+    }
+    if (!missing.isEmpty()) {
+      for (ActionPayloadDao payload : repository.findAllById(missing)) {
+        payloads.put(payload.getHash(), payload.getPayload());
+      }
+      for (var action : actions) {
+        if (action.getAction() == null && action.getPayloadHash() != null) {
+          action.setAction(payloads.get(action.getPayloadHash()));
+        }
+      }
+    }
+    return actions;
+  }
+
+  /**
+   * Delete payloads that are not referenced by any action anymore. This has to follow the
+   * retention deletes, otherwise payloads of expired actions stay forever.
+   *
+   * @return If successful the number of deleted payloads, otherwise Mono error
+   */
+  public Mono<Integer> deleteUnreferencedPayloads() {
+    return Mono.fromCallable(
+            () -> {
+              try {
+                return repository.deleteUnreferenced();
+              } finally {
+                // evicted after the delete, a write during the delete may have cached a hash
+                // whose row was deleted; a write that references it anyway fails on the foreign
+                // key and is retried with an empty cache
+                payloads.clear();
+              }
+            })
+        .subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /** Forget all cached payloads, e.g. after a write referenced a payload that was deleted. */
+  public void evictAll() {
+    payloads.clear();
+  }
+
+  private void insert(String hash, JsonNode canonical, byte[] bytes) {
+    repository.insertIfAbsent(hash, new String(bytes, StandardCharsets.UTF_8));
+    payloads.put(hash, canonical);
+  }
+
+  private byte[] toBytes(JsonNode canonical) {
+    try {
+      return objectMapper.writeValueAsBytes(canonical);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException("Payload cannot be serialized", e);
+    }
+  }
+
+  private String hashOf(byte[] canonicalJson) {
+    return HexFormat.of().formatHex(sha256().digest(canonicalJson));
+  }
+
+  private JsonNode canonicalize(JsonNode node) {
+    if (node.isObject()) {
+      var names = new ArrayList<String>(node.size());
+      node.fieldNames().forEachRemaining(names::add);
+      names.sort(null);
+      var sorted = objectMapper.createObjectNode();
+      for (var name : names) {
+        sorted.set(name, canonicalize(node.get(name)));
+      }
+      return sorted;
+    }
+    if (node.isArray()) {
+      var array = objectMapper.createArrayNode();
+      node.forEach(element -> array.add(canonicalize(element)));
+      return array;
+    }
+    return node;
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
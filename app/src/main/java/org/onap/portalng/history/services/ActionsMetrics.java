@@ -0,0 +1,208 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import lombok.Getter;
+import org.onap.portalng.history.diagnostics.RepositoryCallEvent;
+import org.onap.portalng.history.diagnostics.ResourceUsage;
+import org.onap.portalng.history.diagnostics.SchedulerHandOffEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Stage metrics of the action operations, tagged with the operation:
+ *
+ * <ul>
+ *   <li>{@code history.actions.scheduler.wait}: time from the subscription on the event loop until
+ *       the repository call starts on a {@code boundedElastic} thread
+ *   <li>{@code history.actions.repository}: time of the repository call, including the wait for a
+ *       pooled connection ({@code hikaricp.connections.acquire} on its own)
+ *   <li>{@code history.actions.rows}: rows returned by reads and deleted by deletes and the
+ *       retention
+ *   <li>{@code history.actions.allocated} and {@code history.actions.cpu}: heap allocated and CPU
+ *       time of the thread during the repository call, for requests with resource accounting (see
+ *       {@link ResourceUsage})
+ * </ul>
+ *
+ * <p>Histograms and SLO buckets are configured with the {@code management.metrics.distribution}
+ * properties of the meter names.
+ */
+@Component
+public class ActionsMetrics {
+
+  /** Operations of the actions, named like the API operations. */
+  @Getter
+  public enum Operation {
+    GET_ACTIONS("getActions"),
+    LIST_ACTIONS("listActions"),
+    CREATE_ACTION("createAction"),
+    DELETE_USER_ACTIONS("deleteActions"),
+    RETENTION("retention");
+
+    private final String tag;
+
+    Operation(String tag) {
+      this.tag = tag;
+    }
+  }
+
+  private final Map<Operation, Timer> schedulerWait = new EnumMap<>(Operation.class);
+  private final Map<Operation, Timer> repository = new EnumMap<>(Operation.class);
+  private final Map<Operation, DistributionSummary> rows = new EnumMap<>(Operation.class);
+  private final Map<Operation, DistributionSummary> allocated = new EnumMap<>(Operation.class);
+  private final Map<Operation, Timer> cpu = new EnumMap<>(Operation.class);
+
+  public ActionsMetrics(MeterRegistry meterRegistry) {
+    for (Operation operation : Operation.values()) {
+      schedulerWait.put(
+          operation,
+          Timer.builder("history.actions.scheduler.wait")
+              .description("Wait for a boundedElastic thread before the repository call")
+              .tag("operation", operation.getTag())
+              .register(meterRegistry));
+      repository.put(
+          operation,
+          Timer.builder("history.actions.repository")
+              .description("Repository calls, including the wait for a connection")
+              .tag("operation", operation.getTag())
+              .register(meterRegistry));
+      rows.put(
+          operation,
+          DistributionSummary.builder("history.actions.rows")
+              .description("Rows returned or deleted by a repository call")
+              .baseUnit("rows")
+              .tag("operation", operation.getTag())
+              .register(meterRegistry));
+      allocated.put(
+          operation,
+          DistributionSummary.builder("history.actions.allocated")
+              .description("Heap allocated by the thread of a repository call")
+              .baseUnit("bytes")
+              .tag("operation", operation.getTag())
+              .register(meterRegistry));
+      cpu.put(
+          operation,
+          Timer.builder("history.actions.cpu")
+              .description("CPU time of the thread of a repository call")
+              .tag("operation", operation.getTag())
+              .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Run a blocking repository call on {@code boundedElastic} and time both the wait for the thread
+   * and the call. Both are also emitted as JFR events, {@link SchedulerHandOffEvent} and {@link
+   * RepositoryCallEvent}.
+   *
+   * @param operation operation the call belongs to
+   * @param call blocking repository call
+   * @return result of the call
+   */
+  public <T> Mono<T> onBoundedElastic(Operation operation, Callable<T> call) {
+    return onBoundedElastic(operation, call, null);
+  }
+
+  /**
+   * Run a blocking repository call like {@link #onBoundedElastic(Operation, Callable)} and record
+   * the rows of its result in {@code history.actions.rows} and the JFR event.
+   *
+   * @param rows rows returned or deleted by the call
+   */
+  public <T> Mono<T> onBoundedElastic(
+      Operation operation, Callable<T> call, ToLongFunction<T> rows) {
+    return Mono.deferContextual(
+        context -> {
+          ResourceUsage usage = context.getOrDefault(ResourceUsage.class, null);
+          var scheduled = System.nanoTime();
+          var handOff = new SchedulerHandOffEvent();
+          handOff.begin();
+          return Mono.fromCallable(() -> call(operation, call, rows, scheduled, handOff, usage))
+              .subscribeOn(Schedulers.boundedElastic());
+        });
+  }
+
+  public void recordRows(Operation operation, long count) {
+    rows.get(operation).record(count);
+  }
+
+  // runs on the boundedElastic thread, the resource usage of the thread is sampled around the call
+  private <T> T call(
+      Operation operation,
+      Callable<T> call,
+      ToLongFunction<T> rowsOf,
+      long scheduled,
+      SchedulerHandOffEvent handOff,
+      ResourceUsage usage)
+      throws Exception {
+    var started = System.nanoTime();
+    schedulerWait.get(operation).record(started - scheduled, TimeUnit.NANOSECONDS);
+    commit(handOff, operation);
+    var before = usage == null ? null : ResourceUsage.sample();
+    var repositoryCall = new RepositoryCallEvent();
+    repositoryCall.begin();
+    try {
+      var result = call.call();
+      if (rowsOf != null && result != null) {
+        repositoryCall.rows = rowsOf.applyAsLong(result);
+        recordRows(operation, repositoryCall.rows);
+      }
+      return result;
+    } catch (Exception e) {
+      repositoryCall.failed = true;
+      throw e;
+    } finally {
+      repository.get(operation).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+      commit(repositoryCall, operation);
+      if (usage != null) {
+        var used = ResourceUsage.sample().since(before);
+        usage.add(used);
+        allocated.get(operation).record(used.allocatedBytes());
+        cpu.get(operation).record(used.cpuNanos(), TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  private static void commit(SchedulerHandOffEvent event, Operation operation) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation.getTag();
+      event.commit();
+    }
+  }
+
+  private static void commit(RepositoryCallEvent event, Operation operation) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation.getTag();
+      event.commit();
+    }
+  }
+}
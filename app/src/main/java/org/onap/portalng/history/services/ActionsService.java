@@ -21,41 +21,96 @@
 
 package org.onap.portalng.history.services;
 
+import static org.onap.portalng.history.services.Problems.badRequest;
+import static org.onap.portalng.history.services.Problems.getError;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Date;
-import lombok.RequiredArgsConstructor;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
 import org.onap.portalng.history.entities.ActionsDao;
 import org.onap.portalng.history.exception.ProblemException;
 import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
 import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
 import org.onap.portalng.history.openapi.model.CreateActionRequestApiDto;
+import org.onap.portalng.history.repository.ActionsCursor;
+import org.onap.portalng.history.repository.ActionsPage;
+import org.onap.portalng.history.repository.ActionsQuery;
 import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.repository.HotField;
+import org.onap.portalng.history.repository.PageCursor;
+import org.onap.portalng.history.services.ActionsMetrics.Operation;
 import org.onap.portalng.history.util.Logger;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.zalando.problem.Problem;
-import org.zalando.problem.Status;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
 
-@Transactional
-@RequiredArgsConstructor
 @Slf4j
 @Service
 public class ActionsService {
 
+  private static final int MAX_PROJECTED_FIELDS = 20;
+
   private final ActionsRepository repository;
+  private final ActionsCursor actionsCursor;
+  private final ActionPayloadStore payloadStore;
+  private final PayloadCompressor payloadCompressor;
+  private final SearchIndexer searchIndexer;
+  private final ActionCoalescer actionCoalescer;
+  private final HistoryConfig historyConfig;
   private final ObjectMapper objectMapper;
+  private final ActionsMetrics actionsMetrics;
+  private final TransactionTemplate transactionTemplate;
+
+  public ActionsService(
+      ActionsRepository repository,
+      ActionsCursor actionsCursor,
+      ActionPayloadStore payloadStore,
+      PayloadCompressor payloadCompressor,
+      SearchIndexer searchIndexer,
+      ActionCoalescer actionCoalescer,
+      HistoryConfig historyConfig,
+      ObjectMapper objectMapper,
+      ActionsMetrics actionsMetrics,
+      PlatformTransactionManager transactionManager) {
+    this.repository = repository;
+    this.actionsCursor = actionsCursor;
+    this.payloadStore = payloadStore;
+    this.payloadCompressor = payloadCompressor;
+    this.searchIndexer = searchIndexer;
+    this.actionCoalescer = actionCoalescer;
+    this.historyConfig = historyConfig;
+    this.objectMapper = objectMapper;
+    this.actionsMetrics = actionsMetrics;
+    // the transactions are opened on the bounded elastic threads the repository calls run on, a
+    // transaction opened by the calling event loop thread would take its connection there
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+  }
 
   /**
    * Retrieve actions for a given userId from the database and provide a list with actions
@@ -66,31 +121,92 @@ public class ActionsService {
    *     Therefore, a subtraction is needed.
    * @param pageSize length of the response list
    * @param showLastHours for which hours from the current time the actions should be retrieved.
+   * @param match hot field conditions in the form <code>path:value</code> the actions must match
+   * @param filter JSON document the action payloads must contain, no filter if null
+   * @param fields JSON pointers of the payload parts that are returned, the whole payload if empty
+   * @param cursor <code>nextCursor</code> of a previous page to continue from, replaces the page
    * @param saveInterval value will be part of the response action object. This value is set in the
    *     application properties. In the future this value can be provided from the client.
    * @return If successful object with an item list of action objects and an item with the list
    *     count, otherwise Mono error
    */
   public Mono<ActionsListResponseApiDto> getActions(
-      String userId, Integer page, Integer pageSize, Integer showLastHours, Integer saveInterval) {
-    Pageable paging =
-        PageRequest.of(page - 1, pageSize, Sort.by(Sort.Direction.DESC, "actionCreatedAt"));
-    var dateAfter = Date.from(ZonedDateTime.now().minusHours(showLastHours).toInstant());
-    return Mono.fromCallable(
-            () -> repository.findAllByUserIdAndActionCreatedAtAfter(paging, userId, dateAfter))
-        .subscribeOn(Schedulers.boundedElastic())
-        .flatMapMany(Flux::fromIterable)
-        .map(actionDao -> toActionResponse(actionDao, saveInterval))
-        .collectList()
-        .map(this::toActionsListResponse)
+      String userId,
+      Integer page,
+      Integer pageSize,
+      Integer showLastHours,
+      List<String> match,
+      String filter,
+      List<String> fields,
+      String cursor,
+      Integer saveInterval) {
+    Pageable paging = toPaging(page, pageSize, cursor);
+    ActionsQuery query;
+    try {
+      query = toActionsQuery(userId, showLastHours, match, filter, fields, cursor);
+    } catch (ProblemException ex) {
+      return Mono.error(ex);
+    }
+    return actionsMetrics
+        .onBoundedElastic(
+            Operation.GET_ACTIONS,
+            () -> findActions(query, paging),
+            actionsPage -> actionsPage.actions().size())
+        .onErrorMap(QueryTimeoutException.class, this::toQueryTimeoutProblem)
+        .map(actionsPage -> toActionsListResponse(actionsPage, saveInterval))
         .switchIfEmpty(Mono.just(new ActionsListResponseApiDto().totalCount(0)))
         .onErrorResume(
+            ex -> !(ex instanceof ProblemException),
             ex -> {
               Logger.errorLog("Get actions cannot be executed for user with id ", userId);
               return getError("Get actions can not be executed for user with id " + userId);
             });
   }
 
+  /**
+   * Stream a page of actions from a database cursor instead of collecting it first. Used for large
+   * pages, see {@code history.streaming.min-page-size}.
+   *
+   * @param userId only actions for this <code>userId</code> should be retrieved, all users if null
+   * @param page which page should be retrieved from the list of actions, starting with 1
+   * @param pageSize length of the response list
+   * @param showLastHours for which hours from the current time the actions should be retrieved.
+   * @param match hot field conditions in the form <code>path:value</code> the actions must match
+   * @param filter JSON document the action payloads must contain, no filter if null
+   * @param fields JSON pointers of the payload parts that are returned, the whole payload if empty
+   * @param cursor <code>nextCursor</code> of a previous page to continue from, replaces the page
+   * @param saveInterval value will be part of the response action object. This value is set in the
+   *     application properties.
+   * @return the actions of the page, newest first. Errors before the first action are problems.
+   */
+  public Flux<ActionResponseApiDto> streamActions(
+      String userId,
+      Integer page,
+      Integer pageSize,
+      Integer showLastHours,
+      List<String> match,
+      String filter,
+      List<String> fields,
+      String cursor,
+      Integer saveInterval) {
+    ActionsQuery query;
+    try {
+      query = toActionsQuery(userId, showLastHours, match, filter, fields, cursor);
+    } catch (ProblemException ex) {
+      return Flux.error(ex);
+    }
+    return actionsCursor
+        .streamMatching(query, toPaging(page, pageSize, cursor).getOffset(), pageSize)
+        .map(actionDao -> toActionResponse(projectCompressed(actionDao, query), saveInterval))
+        .onErrorMap(QueryTimeoutException.class, this::toQueryTimeoutProblem)
+        .onErrorResume(
+            ex -> !(ex instanceof ProblemException),
+            ex -> {
+              Logger.errorLog("Stream actions cannot be executed for user with id ", userId);
+              return getError("Stream actions can not be executed for user with id " + userId);
+            });
+  }
+
   /**
    * Create an action data record in the database
    *
@@ -102,19 +218,18 @@ public class ActionsService {
    */
   public Mono<ActionResponseApiDto> createActions(
       String userId, CreateActionRequestApiDto createActionRequest, Integer saveInterval) {
-    return Mono.fromCallable(() -> repository.save(toActionsDao(userId, createActionRequest)))
-        .subscribeOn(Schedulers.boundedElastic())
+    return actionsMetrics
+        .onBoundedElastic(Operation.CREATE_ACTION, () -> saveAction(userId, createActionRequest))
+        // a cached payload hash may reference a payload the retention cleanup has just deleted
+        .retryWhen(
+            Retry.max(1)
+                .filter(DataIntegrityViolationException.class::isInstance)
+                .doBeforeRetry(signal -> payloadStore.evictAll()))
         .map(action -> toActionResponse(action, saveInterval))
         .onErrorResume(
             ex -> {
               Logger.errorLog("Action for user can not be executed for user with id ", userId);
-              return Mono.error(
-                  ProblemException.builder()
-                      .type(Problem.DEFAULT_TYPE)
-                      .status(Status.BAD_REQUEST)
-                      .title(HttpStatus.BAD_REQUEST.toString())
-                      .detail("Action for user can not be executed for user with id " + userId)
-                      .build());
+              return getError("Action for user can not be executed for user with id " + userId);
             });
   }
 
@@ -126,31 +241,79 @@ public class ActionsService {
    *     Therefore, a subtraction is needed.
    * @param pageSize length of the response list
    * @param showLastHours for which hours from the current time the actions should be retrieved.
+   * @param match hot field conditions in the form <code>path:value</code> the actions must match
+   * @param filter JSON document the action payloads must contain, no filter if null
+   * @param fields JSON pointers of the payload parts that are returned, the whole payload if empty
+   * @param cursor <code>nextCursor</code> of a previous page to continue from, replaces the page
    * @param saveInterval value will be part of the response action object. This value is set in the
    *     application properties. * In the future this value can be provided from the client.
    * @return If successful list with action response object, otherwise Mono error
    */
   public Mono<ActionsListResponseApiDto> listActions(
-      Integer page, Integer pageSize, Integer showLastHours, Integer saveInterval) {
+      Integer page,
+      Integer pageSize,
+      Integer showLastHours,
+      List<String> match,
+      String filter,
+      List<String> fields,
+      String cursor,
+      Integer saveInterval) {
 
-    var paging =
-        PageRequest.of(page - 1, pageSize, Sort.by(Sort.Direction.DESC, "actionCreatedAt"));
-    var dateAfter = Date.from(ZonedDateTime.now().minusHours(showLastHours).toInstant());
+    var paging = toPaging(page, pageSize, cursor);
+    ActionsQuery query;
+    try {
+      query = toActionsQuery(null, showLastHours, match, filter, fields, cursor);
+    } catch (ProblemException ex) {
+      return Mono.error(ex);
+    }
 
-    return Mono.fromCallable(() -> repository.findAllByActionCreatedAtAfter(paging, dateAfter))
-        .subscribeOn(Schedulers.boundedElastic())
-        .flatMapMany(Flux::fromIterable)
-        .map(actionDto -> toActionResponse(actionDto, saveInterval))
-        .collectList()
-        .map(this::toActionsListResponse)
+    return actionsMetrics
+        .onBoundedElastic(
+            Operation.LIST_ACTIONS,
+            () -> findActions(query, paging),
+            actionsPage -> actionsPage.actions().size())
+        .onErrorMap(QueryTimeoutException.class, this::toQueryTimeoutProblem)
+        .map(actionsPage -> toActionsListResponse(actionsPage, saveInterval))
         .onErrorResume(
-            ProblemException.class,
+            ex -> !(ex instanceof ProblemException),
             ex -> {
               Logger.errorLog("List actions cannot be created", null);
               return getError("List actions cannot be created");
             });
   }
 
+  /**
+   * Retrieve the newest action of a user for every distinct value of a payload field, e.g. the
+   * recently used applications.
+   *
+   * @param userId only actions for this <code>userId</code> should be retrieved
+   * @param key JSON pointer of the payload field, must be one of the configured keys
+   * @param limit maximum length of the response list
+   * @param saveInterval value will be part of the response action object. This value is set in the
+   *     application properties.
+   * @return If successful list with action response objects, otherwise Mono error
+   */
+  public Mono<ActionsListResponseApiDto> getRecentDistinctActions(
+      String userId, String key, Integer limit, Integer saveInterval) {
+    if (!historyConfig.getRecentDistinct().keys().contains(key)) {
+      return getError("Key " + key + " is not maintained as recent distinct view");
+    }
+    return Mono.fromCallable(() -> repository.findRecentDistinct(userId, key, limit))
+        .subscribeOn(Schedulers.boundedElastic())
+        .map(
+            actions ->
+                toActionsListResponse(
+                    actions.stream()
+                        .map(actionDao -> toActionResponse(actionDao, saveInterval))
+                        .toList()))
+        .onErrorResume(
+            ex -> !(ex instanceof ProblemException),
+            ex -> {
+              Logger.errorLog("Get recent distinct actions cannot be executed for user ", userId);
+              return getError("Get recent distinct actions can not be executed for user " + userId);
+            });
+  }
+
   /**
    * Delete actions for a given userId and action is create after hours
    *
@@ -160,9 +323,11 @@ public class ActionsService {
    */
   public Mono<Object> deleteUserActions(String userId, Integer deleteAfterHours) {
     var dateAfter = Date.from(ZonedDateTime.now().minusHours(deleteAfterHours).toInstant());
-    return Mono.fromCallable(
-            () -> repository.deleteAllByUserIdAndActionCreatedAtIsBefore(userId, dateAfter))
-        .subscribeOn(Schedulers.boundedElastic())
+    return actionsMetrics
+        .onBoundedElastic(
+            Operation.DELETE_USER_ACTIONS,
+            () -> repository.deleteAllByUserIdAndActionCreatedAtIsBefore(userId, dateAfter),
+            deleted -> deleted)
         .map(resp -> new Object())
         .onErrorResume(
             ProblemException.class,
@@ -177,15 +342,15 @@ public class ActionsService {
    * implemented with a separate user story.
    *
    * @param deleteAfterHours hours after the actions should be deleted
-   * @return If successful empty Mono object, otherwise Mono error
+   * @return If successful the number of deleted actions, otherwise Mono error
    */
-  public Mono<Object> deleteActions(Integer deleteAfterHours) {
+  public Mono<Long> deleteActions(Integer deleteAfterHours) {
     var dateAfter =
         Date.from(
             LocalDateTime.now().minusHours(deleteAfterHours).atZone(ZoneId.of("CET")).toInstant());
-    return Mono.fromCallable(() -> repository.deleteAllByActionCreatedAtIsBefore(dateAfter))
-        .subscribeOn(Schedulers.boundedElastic())
-        .map(resp -> new Object())
+    return actionsMetrics
+        .onBoundedElastic(
+            Operation.RETENTION, () -> repository.deleteAllByActionCreatedAtIsBefore(dateAfter))
         .onErrorResume(
             ProblemException.class,
             ex -> {
@@ -194,6 +359,191 @@ public class ActionsService {
             });
   }
 
+  /**
+   * @param userId only actions of this user, all users if null
+   * @param showLastHours time window of the actions
+   * @param match hot field conditions in the form <code>path:value</code>
+   * @param filter JSON document the payloads must contain, no filter if null
+   * @param fields JSON pointers of the payload parts that are returned
+   * @param cursor position of a previous page to continue from, null for the first page
+   * @return the query of the actions
+   * @throws ProblemException if a condition, the filter, a field or the cursor is invalid
+   */
+  private ActionsQuery toActionsQuery(
+      String userId,
+      Integer showLastHours,
+      List<String> match,
+      String filter,
+      List<String> fields,
+      String cursor) {
+    var dateAfter = Date.from(ZonedDateTime.now().minusHours(showLastHours).toInstant());
+    return new ActionsQuery(
+        userId,
+        dateAfter,
+        toHotFieldMatches(match),
+        toContainment(filter, showLastHours),
+        toProjection(fields),
+        toPageCursor(cursor));
+  }
+
+  /** A page that continues from a cursor starts right after it, the page number is ignored. */
+  private Pageable toPaging(Integer page, Integer pageSize, String cursor) {
+    return PageRequest.of(
+        cursor == null ? page - 1 : 0, pageSize, Sort.by(Sort.Direction.DESC, "actionCreatedAt"));
+  }
+
+  private PageCursor toPageCursor(String cursor) {
+    try {
+      return cursor == null ? null : PageCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw badRequest("Invalid cursor");
+    }
+  }
+
+  /**
+   * Pages are read within the response byte budget if one is configured. Otherwise plain time
+   * window queries use the derived queries, payload filters and projections need plain SQL.
+   *
+   * @param query criteria of the actions
+   * @param paging page of the actions
+   * @return actions of the page with their payloads, newest first
+   */
+  private ActionsPage findActions(ActionsQuery query, Pageable paging) {
+    var maxBytes = historyConfig.getResponseBudget().maxBytes().toBytes();
+    if (maxBytes > 0) {
+      var actionsPage = repository.findPage(query, paging, maxBytes);
+      actionsPage.actions().forEach(action -> projectCompressed(action, query));
+      return actionsPage;
+    }
+    if (!query.needsSql()) {
+      return new ActionsPage(
+          payloadStore.resolve(
+              query.userId() == null
+                  ? repository.findAllByActionCreatedAtAfter(paging, query.actionCreatedAfter())
+                  : repository.findAllByUserIdAndActionCreatedAtAfter(
+                      paging, query.userId(), query.actionCreatedAfter())),
+          null);
+    }
+    var actions = repository.findAllMatching(query, paging);
+    actions.forEach(action -> projectCompressed(action, query));
+    return new ActionsPage(actions, null);
+  }
+
+  /** Compressed payloads are opaque to SQL, their projection is done here instead. */
+  private ActionsDao projectCompressed(ActionsDao action, ActionsQuery query) {
+    if (!query.projection().isEmpty() && action.getActionCompressed() != null) {
+      action.setAction(project(payloadCompressor.treeOf(action), query.projection()));
+      action.setActionCompressed(null);
+    }
+    return action;
+  }
+
+  /**
+   * @param fields JSON pointers of the payload parts that are returned
+   * @return the parsed pointers, empty if the whole payload is returned
+   * @throws ProblemException if a field is no valid JSON pointer or there are too many fields
+   */
+  private List<JsonPointer> toProjection(List<String> fields) {
+    if (fields.size() > MAX_PROJECTED_FIELDS) {
+      throw badRequest("At most " + MAX_PROJECTED_FIELDS + " fields can be selected");
+    }
+    try {
+      return fields.stream().map(JsonPointer::compile).toList();
+    } catch (IllegalArgumentException e) {
+      throw badRequest("Fields must be JSON pointers like /applicationId: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Same shape as the projection done in SQL: the selected parts keyed by their pointer, missing
+   * parts are null.
+   */
+  private JsonNode project(JsonNode action, List<JsonPointer> projection) {
+    var projected = objectMapper.createObjectNode();
+    for (var pointer : projection) {
+      var value = action.at(pointer);
+      projected.set(pointer.toString(), value.isMissingNode() ? NullNode.getInstance() : value);
+    }
+    return projected;
+  }
+
+  /**
+   * @param match hot field conditions in the form <code>path:value</code>
+   * @return the values the hot field columns have to be equal to
+   * @throws ProblemException if a condition does not refer to a configured hot field
+   */
+  private Map<HotField, String> toHotFieldMatches(List<String> match) {
+    if (match.isEmpty()) {
+      return Map.of();
+    }
+    var hotFields =
+        HotField.of(historyConfig.getHotFields().paths()).stream()
+            .collect(Collectors.toMap(HotField::path, Function.identity()));
+    var hotFieldMatches = new LinkedHashMap<HotField, String>();
+    for (var condition : match) {
+      var separator = condition.indexOf(':');
+      var hotField = separator < 0 ? null : hotFields.get(condition.substring(0, separator));
+      if (hotField == null) {
+        throw badRequest("Match " + condition + " does not refer to a configured hot field");
+      }
+      hotFieldMatches.put(hotField, condition.substring(separator + 1));
+    }
+    return hotFieldMatches;
+  }
+
+  /**
+   * @param filter JSON document the payloads must contain
+   * @param showLastHours time window the filter is applied to
+   * @return the parsed document, null if there is no filter
+   * @throws ProblemException if the filter is no JSON object or array or the window is too large
+   */
+  private JsonNode toContainment(String filter, Integer showLastHours) {
+    if (filter == null) {
+      return null;
+    }
+    var maxWindow = historyConfig.getFilter().maxWindow();
+    if (Duration.ofHours(showLastHours).compareTo(maxWindow) > 0) {
+      throw badRequest("Filter can only be applied to the last " + maxWindow.toHours() + " hours");
+    }
+    JsonNode containment;
+    try {
+      containment = objectMapper.readTree(filter);
+    } catch (JsonProcessingException e) {
+      containment = null;
+    }
+    if (containment == null || !containment.isContainerNode()) {
+      throw badRequest("Filter must be a JSON object or array");
+    }
+    return containment;
+  }
+
+  private ProblemException toQueryTimeoutProblem(QueryTimeoutException ex) {
+    log.warn("Actions query was cancelled: {}", ex.getMessage());
+    return badRequest(
+        "Query was cancelled after "
+            + historyConfig.getFilter().statementTimeout().toMillis()
+            + " ms, narrow down the time window or the filter");
+  }
+
+  /**
+   * @param actionsPage actions of the page and the position to continue from
+   * @param saveInterval value will be part of the response action object. This value is set in the
+   *     application properties.
+   * @return ActionsListResponse with the next cursor if the page was cut short
+   */
+  private ActionsListResponseApiDto toActionsListResponse(
+      ActionsPage actionsPage, Integer saveInterval) {
+    var actionsListResponse =
+        toActionsListResponse(
+            actionsPage.actions().stream()
+                .map(actionDao -> toActionResponse(actionDao, saveInterval))
+                .toList());
+    if (actionsPage.next() != null) {
+      actionsListResponse.setNextCursor(actionsPage.next().encode());
+    }
+    return actionsListResponse;
+  }
+
   /**
    * @param resp List of ActionResponses
    * @param saveInterval value will be part of the response action object. This value is set in the
@@ -201,7 +551,7 @@ public class ActionsService {
    * @return ActionsListResponse
    */
   private ActionsListResponseApiDto toActionsListResponse(
-      java.util.List<ActionResponseApiDto> actionResponses) {
+      List<ActionResponseApiDto> actionResponses) {
     var actionsListResponse = new ActionsListResponseApiDto();
     actionsListResponse.setActionsList(actionResponses);
     actionsListResponse.setTotalCount(actionResponses.size());
@@ -219,31 +569,89 @@ public class ActionsService {
         .actionCreatedAt(
             actionsDao.getActionCreatedAt().toInstant().atOffset(ZoneOffset.ofHours(0)))
         .saveInterval(saveInterval)
-        .action(actionsDao.getAction());
+        .repeatCount(actionsDao.getRepeatCount())
+        .payloadOmitted(actionsDao.isPayloadOmitted() ? true : null)
+        .action(payloadCompressor.payloadOf(actionsDao));
+  }
+
+  /**
+   * The action and its payload are stored in one transaction. The recent distinct view is updated
+   * after it, a failed statement would abort the whole transaction in PostgreSQL.
+   */
+  private ActionsDao saveAction(String userId, CreateActionRequestApiDto createActionRequest) {
+    JsonNode action = objectMapper.valueToTree(createActionRequest.getAction());
+    var actionCreatedAt = new Date(createActionRequest.getActionCreatedAt().toEpochSecond() * 1000);
+    var saved = transactionTemplate.execute(status -> storeAction(userId, actionCreatedAt, action));
+    recordRecentAction(saved, action);
+    return saved;
   }
 
-  private ActionsDao toActionsDao(String userId, CreateActionRequestApiDto createActionRequest) {
+  private ActionsDao storeAction(String userId, Date actionCreatedAt, JsonNode action) {
+    var hash = actionCoalescer.isEnabled() ? payloadStore.hash(action) : null;
+    if (hash != null) {
+      var coalesced = actionCoalescer.coalesce(userId, actionCreatedAt, hash, action);
+      if (coalesced.isPresent()) {
+        return coalesced.get();
+      }
+    }
+    var saved = repository.save(toActionsDao(userId, actionCreatedAt, action, hash));
+    if (hash != null) {
+      actionCoalescer.remember(saved, hash);
+    }
+    return payloadStore.resolve(List.of(saved)).get(0);
+  }
+
+  /**
+   * Update the recent distinct view for the configured keys. The view is derived data, a failed
+   * update is logged and does not fail the request.
+   */
+  private void recordRecentAction(ActionsDao saved, JsonNode action) {
+    var keyValues = new LinkedHashMap<String, String>();
+    for (var key : historyConfig.getRecentDistinct().keys()) {
+      var value = action.at(key);
+      if (value.isValueNode() && !value.isNull()) {
+        keyValues.put(key, value.asText());
+      }
+    }
+    if (keyValues.isEmpty()) {
+      return;
+    }
+    try {
+      repository.upsertRecentActions(saved, keyValues);
+    } catch (DataAccessException e) {
+      log.warn("Recent actions of user {} cannot be updated", saved.getUserId(), e);
+    }
+  }
+
+  /**
+   * Entity of a new action, its payload stored plain, compressed or deduplicated
+   *
+   * @param hash hash of the canonical payload if already computed for the coalescing, else null
+   */
+  private ActionsDao toActionsDao(
+      String userId, Date actionCreatedAt, JsonNode action, String hash) {
     var actionsDao = new ActionsDao();
     actionsDao.setUserId(userId);
-    actionsDao.setActionCreatedAt(
-        new Date(createActionRequest.getActionCreatedAt().toEpochSecond() * 1000));
-    actionsDao.setAction(objectMapper.valueToTree(createActionRequest.getAction()));
+    actionsDao.setActionCreatedAt(actionCreatedAt);
+    searchIndexer.indexOnInsert(actionsDao, action);
+    var compressed =
+        payloadCompressor.isEnabled() ? payloadCompressor.compressIfLarge(toBytes(action)) : null;
+    if (compressed != null) {
+      actionsDao.setActionCompressed(compressed);
+    } else if (historyConfig.getPayloadDedup().enabled()) {
+      actionsDao.setPayloadHash(
+          hash != null ? payloadStore.store(action, hash) : payloadStore.store(action));
+    } else {
+      actionsDao.setAction(action);
+    }
     return actionsDao;
   }
 
-  /**
-   * Build a problem exception with given message
-   *
-   * @param message will be detail part of the problem object
-   * @return Mono error with problem exception
-   */
-  private Mono<ActionsListResponseApiDto> getError(String message) {
-    return Mono.error(
-        ProblemException.builder()
-            .type(Problem.DEFAULT_TYPE)
-            .status(Status.BAD_REQUEST)
-            .title(HttpStatus.BAD_REQUEST.toString())
-            .detail(message)
-            .build());
+  private byte[] toBytes(JsonNode action) {
+    try {
+      return objectMapper.writeValueAsBytes(action);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException("Payload cannot be serialized", e);
+    }
   }
 }
@@ -0,0 +1,158 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import static org.onap.portalng.history.services.Problems.getError;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.archive.ArchiveSegmentStore;
+import org.onap.portalng.history.archive.ArchivedAction;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.util.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Slf4j
+@Service
+public class ArchiveService {
+
+  private final ActionsRepository repository;
+  private final ArchiveSegmentStore segmentStore;
+  private final PayloadCompressor payloadCompressor;
+  private final HistoryConfig.Archive archiveConfig;
+  private final TransactionTemplate transactionTemplate;
+
+  public ArchiveService(
+      ActionsRepository repository,
+      ArchiveSegmentStore segmentStore,
+      PayloadCompressor payloadCompressor,
+      HistoryConfig historyConfig,
+      PlatformTransactionManager transactionManager) {
+    this.repository = repository;
+    this.segmentStore = segmentStore;
+    this.payloadCompressor = payloadCompressor;
+    this.archiveConfig = historyConfig.getArchive();
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    // the delete must only remove rows the cursor has seen, rows inserted concurrently with an
+    // old creation date stay in the table until the next run
+    this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+  }
+
+  /**
+   * Move actions after hours from the database into the archive. The expired actions are streamed
+   * with a server-side cursor into segment files and deleted in the same transaction after the
+   * segments have been flushed to disk.
+   *
+   * @param deleteAfterHours hours after the actions should be archived
+   * @return If successful the number of archived actions, otherwise Mono error
+   */
+  public Mono<Long> archiveActions(Integer deleteAfterHours) {
+    var dateBefore =
+        Date.from(
+            LocalDateTime.now().minusHours(deleteAfterHours).atZone(ZoneId.of("CET")).toInstant());
+    return Mono.fromCallable(() -> transactionTemplate.execute(status -> archive(dateBefore)))
+        .subscribeOn(Schedulers.boundedElastic())
+        .doOnError(ex -> Logger.errorLog("Archiving of actions cannot be executed ", null));
+  }
+
+  /**
+   * Read actions from the archive
+   *
+   * @param from lower bound of the creation time
+   * @param to upper bound of the creation time
+   * @param userId if present only actions of this user are returned
+   * @param limit maximum length of the response list
+   * @param saveInterval value will be part of the response action object. This value is set in the
+   *     application properties.
+   * @return If successful list with action response objects, otherwise Mono error
+   */
+  public Mono<ActionsListResponseApiDto> listArchivedActions(
+      OffsetDateTime from,
+      OffsetDateTime to,
+      Optional<String> userId,
+      Integer limit,
+      Integer saveInterval) {
+    return Mono.fromCallable(
+            () -> segmentStore.find(from.toInstant(), to.toInstant(), userId, limit))
+        .subscribeOn(Schedulers.boundedElastic())
+        .map(
+            actions ->
+                new ActionsListResponseApiDto()
+                    .actionsList(
+                        actions.stream()
+                            .map(action -> toActionResponse(action, saveInterval))
+                            .toList())
+                    .totalCount(actions.size()))
+        .onErrorResume(
+            IOException.class,
+            ex -> {
+              Logger.errorLog("Archived actions cannot be read", null);
+              return getError("Archived actions cannot be read");
+            });
+  }
+
+  private long archive(Date dateBefore) {
+    try (var writer = segmentStore.openWriter()) {
+      var archived =
+          repository.streamAllByActionCreatedAtBefore(
+              dateBefore,
+              archiveConfig.fetchSize(),
+              action ->
+                  writer.append(
+                      new ArchivedAction(
+                          action.getUserId(),
+                          action.getActionCreatedAt().getTime(),
+                          payloadCompressor.treeOf(action))));
+      var segments = writer.commit();
+      var deleted = repository.deleteAllByActionCreatedAtIsBefore(dateBefore);
+      log.info(
+          "Archived {} actions into {} segments, deleted {}", archived, segments.size(), deleted);
+      return deleted;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Archive segments cannot be written", e);
+    }
+  }
+
+  private ActionResponseApiDto toActionResponse(ArchivedAction action, Integer saveInterval) {
+    return new ActionResponseApiDto()
+        .actionCreatedAt(
+            Instant.ofEpochMilli(action.actionCreatedAt()).atOffset(ZoneOffset.UTC))
+        .saveInterval(saveInterval)
+        .action(action.action());
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import static org.onap.portalng.history.services.Problems.badRequest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.onap.portalng.history.exception.ProblemException;
+import org.onap.portalng.history.repository.ActionsCursor;
+import org.onap.portalng.history.util.ChunkedEncoder;
+import org.onap.portalng.history.util.Logger;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import reactor.core.publisher.Flux;
+
+/**
+ * Bulk export of the actions of a timeframe. An export reads all actions through a single database
+ * cursor and writes them as they are read, so it runs in one pass with constant memory. Exported
+ * actions are counted in {@code history.export.actions}.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+  private static final byte[] CSV_HEADER =
+      "userId,actionCreatedAt,repeatCount,action\n".getBytes(StandardCharsets.UTF_8);
+  // ISO-8601 with seconds and milliseconds always written, all rows of a file have the same format
+  private static final DateTimeFormatter CSV_TIMESTAMP =
+      DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSXXX");
+
+  /** Output formats of an export. */
+  public enum Format {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    Format(String mediaType) {
+      this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+      return mediaType;
+    }
+
+    /**
+     * @param name name of the format as used in the API, e.g. <code>ndjson</code>
+     * @return the format
+     * @throws ProblemException if there is no such format
+     */
+    public static Format of(String name) {
+      for (var format : values()) {
+        if (format.name().equalsIgnoreCase(name)) {
+          return format;
+        }
+      }
+      throw badRequest("Unknown export format " + name);
+    }
+  }
+
+  private final ActionsCursor actionsCursor;
+  private final ActionsService actionsService;
+  private final ObjectMapper objectMapper;
+  private final Semaphore permits;
+  private final MeterRegistry meterRegistry;
+
+  public ExportService(
+      ActionsCursor actionsCursor,
+      ActionsService actionsService,
+      ObjectMapper objectMapper,
+      HistoryConfig historyConfig,
+      MeterRegistry meterRegistry) {
+    this.actionsCursor = actionsCursor;
+    this.actionsService = actionsService;
+    this.objectMapper = objectMapper;
+    this.permits = new Semaphore(historyConfig.getExport().maxConcurrent());
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Export all actions of a timeframe, oldest first. The database is only read as fast as the
+   * returned buffers are consumed.
+   *
+   * @param from lower bound (inclusive) of the creation time
+   * @param to upper bound (exclusive) of the creation time
+   * @param userId if present only actions of this user are exported
+   * @param format output format
+   * @param gzip compress the output with gzip
+   * @param saveInterval value will be part of the exported action objects. This value is set in
+   *     the application properties.
+   * @param bufferFactory factory of the response buffers
+   * @return the encoded export. Errors before the first buffer are problems, e.g. if too many
+   *     exports are running.
+   */
+  public Flux<DataBuffer> exportActions(
+      OffsetDateTime from,
+      OffsetDateTime to,
+      Optional<String> userId,
+      Format format,
+      boolean gzip,
+      Integer saveInterval,
+      DataBufferFactory bufferFactory) {
+    if (!from.isBefore(to)) {
+      return Flux.error(badRequest("The start of the export must be before its end"));
+    }
+    var exported =
+        Counter.builder("history.export.actions")
+            .description("Actions written by bulk exports")
+            .tag("format", format.name().toLowerCase())
+            .register(meterRegistry);
+    return Flux.defer(
+        () -> {
+          if (!permits.tryAcquire()) {
+            return Flux.error(
+                ProblemException.builder()
+                    .type(Problem.DEFAULT_TYPE)
+                    .status(Status.TOO_MANY_REQUESTS)
+                    .title(HttpStatus.TOO_MANY_REQUESTS.toString())
+                    .detail("Too many exports are running, retry later")
+                    .build());
+          }
+          var actions =
+              actionsCursor
+                  .streamCreatedBetween(
+                      Date.from(from.toInstant()), Date.from(to.toInstant()), userId.orElse(null))
+                  .doOnNext(action -> exported.increment())
+                  .map(action -> toLine(action, format, saveInterval));
+          var parts = format == Format.CSV ? actions.startWith(CSV_HEADER) : actions;
+          return ChunkedEncoder.encode(parts, gzip, bufferFactory)
+              .doOnError(ex -> Logger.errorLog("Export of actions failed", userId.orElse(null)))
+              .doFinally(signal -> permits.release());
+        });
+  }
+
+  private byte[] toLine(ActionsDao action, Format format, Integer saveInterval) {
+    return format == Format.CSV ? toCsv(action, saveInterval) : toNdjson(action, saveInterval);
+  }
+
+  private byte[] toNdjson(ActionsDao action, Integer saveInterval) {
+    var response = actionsService.toActionResponse(action, saveInterval).userId(action.getUserId());
+    return (toJson(response) + "\n").getBytes(StandardCharsets.UTF_8);
+  }
+
+  private byte[] toCsv(ActionsDao action, Integer saveInterval) {
+    var response = actionsService.toActionResponse(action, saveInterval);
+    var line =
+        csvField(action.getUserId())
+            + ','
+            + CSV_TIMESTAMP.format(action.getActionCreatedAt().toInstant().atOffset(ZoneOffset.UTC))
+            + ','
+            + action.getRepeatCount()
+            + ','
+            + csvField(toJson(response.getAction()))
+            + '\n';
+    return line.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Quote a field as described in RFC 4180 if it contains a separator, quote or line break. */
+  private static String csvField(String value) {
+    if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  private String toJson(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Action cannot be serialized", e);
+    }
+  }
+}
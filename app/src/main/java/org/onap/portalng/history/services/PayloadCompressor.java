@@ -0,0 +1,182 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.springframework.stereotype.Service;
+
+/**
+ * Deflates large action payloads before they are stored and inflates them again when they are
+ * read. Compression ratio and the CPU time spent on both directions are published as metrics.
+ */
+@Service
+public class PayloadCompressor {
+
+  private final ObjectMapper objectMapper;
+  private final HistoryConfig.PayloadCompression compressionConfig;
+  private final DistributionSummary compressionRatio;
+  private final Timer compressTimer;
+  private final Timer decompressTimer;
+
+  public PayloadCompressor(
+      ObjectMapper objectMapper, HistoryConfig historyConfig, MeterRegistry meterRegistry) {
+    this.objectMapper = objectMapper;
+    this.compressionConfig = historyConfig.getPayloadCompression();
+    this.compressionRatio =
+        DistributionSummary.builder("history.payload.compression.ratio")
+            .description("Size of the JSON payload divided by its compressed size")
+            .register(meterRegistry);
+    this.compressTimer =
+        Timer.builder("history.payload.compression")
+            .tag("operation", "compress")
+            .register(meterRegistry);
+    this.decompressTimer =
+        Timer.builder("history.payload.compression")
+            .tag("operation", "decompress")
+            .register(meterRegistry);
+  }
+
+  /** Whether large payloads are compressed, the payload has to be serialized for that only */
+  public boolean isEnabled() {
+    return compressionConfig.enabled();
+  }
+
+  /**
+   * Compress the JSON representation of the payload if compression is enabled and the payload is
+   * larger than the threshold
+   *
+   * @param json JSON representation of the payload
+   * @return the compressed payload, or null if the payload should be stored as jsonb
+   */
+  public byte[] compressIfLarge(byte[] json) {
+    if (!compressionConfig.enabled() || json.length < compressionConfig.threshold().toBytes()) {
+      return null;
+    }
+    var start = System.nanoTime();
+    var deflater = new Deflater(compressionConfig.level());
+    var compressed = new ByteArrayOutputStream(json.length / 4);
+    try (var out = new DeflaterOutputStream(compressed, deflater)) {
+      out.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Payload cannot be compressed", e);
+    } finally {
+      deflater.end();
+    }
+    compressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    compressionRatio.record((double) json.length / compressed.size());
+    return compressed.toByteArray();
+  }
+
+  /**
+   * Payload of the action as it should be put into the response. Compressed payloads are wrapped
+   * and only inflated when the response is serialized.
+   *
+   * @param actionsDao the stored action
+   * @return the payload
+   */
+  public Object payloadOf(ActionsDao actionsDao) {
+    if (actionsDao.getActionCompressed() != null) {
+      return new CompressedPayload(actionsDao.getActionCompressed());
+    }
+    return actionsDao.getAction();
+  }
+
+  /**
+   * Payload of the action as JSON tree. Compressed payloads are inflated immediately.
+   *
+   * @param actionsDao the stored action
+   * @return the payload
+   */
+  public JsonNode treeOf(ActionsDao actionsDao) {
+    if (actionsDao.getActionCompressed() == null) {
+      return actionsDao.getAction();
+    }
+    var start = System.nanoTime();
+    try (var in = inflate(actionsDao.getActionCompressed())) {
+      return objectMapper.readTree(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Payload cannot be decompressed", e);
+    } finally {
+      decompressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private static InflaterInputStream inflate(byte[] compressed) {
+    return new InflaterInputStream(new ByteArrayInputStream(compressed), new Inflater(), 8192) {
+      @Override
+      public void close() throws IOException {
+        super.close();
+        inf.end();
+      }
+    };
+  }
+
+  /**
+   * Compressed payload that inflates itself while it is written. The inflated JSON is copied token
+   * by token into the generator, so neither the JSON text nor a tree of it is kept in memory and
+   * the payload can be written in any format the generator supports.
+   */
+  private final class CompressedPayload implements JsonSerializable {
+    private final byte[] compressed;
+
+    private CompressedPayload(byte[] compressed) {
+      this.compressed = compressed;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+      var start = System.nanoTime();
+      try (var parser = objectMapper.getFactory().createParser(inflate(compressed))) {
+        parser.nextToken();
+        gen.copyCurrentStructure(parser);
+      } finally {
+        decompressTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    @Override
+    public void serializeWithType(
+        JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+        throws IOException {
+      serialize(gen, serializers);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import org.onap.portalng.history.exception.ProblemException;
+import org.springframework.http.HttpStatus;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import reactor.core.publisher.Mono;
+
+/** Problems the services report to the client */
+final class Problems {
+
+  private Problems() {}
+
+  /**
+   * Build a problem exception with given message
+   *
+   * @param message will be detail part of the problem object
+   * @return problem exception with status bad request
+   */
+  static ProblemException badRequest(String message) {
+    return ProblemException.builder()
+        .type(Problem.DEFAULT_TYPE)
+        .status(Status.BAD_REQUEST)
+        .title(HttpStatus.BAD_REQUEST.toString())
+        .detail(message)
+        .build();
+  }
+
+  /**
+   * Build a problem exception with given message
+   *
+   * @param message will be detail part of the problem object
+   * @return Mono error with problem exception
+   */
+  static <T> Mono<T> getError(String message) {
+    return Mono.error(badRequest(message));
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.StringJoiner;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.repository.HotField;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Builds the text the search vector of an action is derived from. Depending on {@code
+ * history.search.deferred} this happens on insert or in batches in the background. The time spent
+ * on both paths is published as {@code history.search.index}, the number of indexed actions as
+ * {@code history.search.index.documents}.
+ */
+@Slf4j
+@Service
+public class SearchIndexer {
+
+  private final ActionsRepository repository;
+  private final PayloadCompressor payloadCompressor;
+  private final HistoryConfig.Search searchConfig;
+  private final List<JsonPointer> fields;
+  private final Timer inlineTimer;
+  private final Timer deferredTimer;
+  private final Counter inlineDocuments;
+  private final Counter deferredDocuments;
+
+  public SearchIndexer(
+      ActionsRepository repository,
+      PayloadCompressor payloadCompressor,
+      HistoryConfig historyConfig,
+      MeterRegistry meterRegistry) {
+    this.repository = repository;
+    this.payloadCompressor = payloadCompressor;
+    this.searchConfig = historyConfig.getSearch();
+    // same path syntax as the hot fields
+    this.fields =
+        HotField.of(searchConfig.fields()).stream()
+            .map(field -> JsonPointer.compile("/" + field.path().replace('.', '/')))
+            .toList();
+    this.inlineTimer =
+        Timer.builder("history.search.index").tag("mode", "inline").register(meterRegistry);
+    this.deferredTimer =
+        Timer.builder("history.search.index").tag("mode", "deferred").register(meterRegistry);
+    this.inlineDocuments =
+        Counter.builder("history.search.index.documents")
+            .tag("mode", "inline")
+            .register(meterRegistry);
+    this.deferredDocuments =
+        Counter.builder("history.search.index.documents")
+            .tag("mode", "deferred")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Set the search document of a new action unless search is disabled or indexing is deferred.
+   *
+   * @param actionsDao the action that is about to be inserted
+   * @param action the payload of the action
+   */
+  public void indexOnInsert(ActionsDao actionsDao, JsonNode action) {
+    if (!searchConfig.enabled() || searchConfig.deferred()) {
+      return;
+    }
+    actionsDao.setSearchDocument(inlineTimer.record(() -> documentOf(action)));
+    inlineDocuments.increment();
+  }
+
+  /**
+   * Index one batch of actions within {@code history.search.max-window} that have no search vector
+   * yet. Only runs if search is enabled and indexing is deferred.
+   *
+   * @return number of indexed actions
+   */
+  public Mono<Integer> indexDeferred() {
+    if (!searchConfig.enabled() || !searchConfig.deferred()) {
+      return Mono.just(0);
+    }
+    var dateAfter = Date.from(Instant.now().minus(searchConfig.maxWindow()));
+    return Mono.fromCallable(() -> deferredTimer.recordCallable(() -> indexBatch(dateAfter)))
+        .subscribeOn(Schedulers.boundedElastic())
+        .doOnNext(deferredDocuments::increment)
+        .doOnError(ex -> log.warn("Deferred search indexing failed", ex));
+  }
+
+  private int indexBatch(Date dateAfter) {
+    var actions = repository.findAllUnindexed(dateAfter, searchConfig.backfillBatchSize());
+    var documents = new LinkedHashMap<String, String>();
+    for (var action : actions) {
+      documents.put(action.getId(), documentOf(payloadCompressor.treeOf(action)));
+    }
+    if (!documents.isEmpty()) {
+      repository.updateSearchDocuments(documents);
+    }
+    return documents.size();
+  }
+
+  /**
+   * @param action payload of an action
+   * @return text of the configured fields, all text of the payload if no fields are configured
+   */
+  String documentOf(JsonNode action) {
+    var document = new StringJoiner(" ");
+    if (action == null) {
+      return document.toString();
+    }
+    if (fields.isEmpty()) {
+      collectText(action, document);
+    } else {
+      fields.forEach(field -> collectText(action.at(field), document));
+    }
+    return document.toString();
+  }
+
+  private void collectText(JsonNode node, StringJoiner document) {
+    if (node.isValueNode()) {
+      if (!node.isNull()) {
+        document.add(node.asText());
+      }
+    } else {
+      node.forEach(child -> collectText(child, document));
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import static org.onap.portalng.history.services.Problems.getError;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.repository.ActionsSearch;
+import org.onap.portalng.history.repository.SearchCursor;
+import org.onap.portalng.history.util.Logger;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/** Full-text search over the actions indexed by the {@link SearchIndexer}. */
+@Slf4j
+@Service
+public class SearchService {
+
+  private final ActionsRepository repository;
+  private final ActionsService actionsService;
+  private final HistoryConfig.Search searchConfig;
+
+  public SearchService(
+      ActionsRepository repository,
+      ActionsService actionsService,
+      HistoryConfig historyConfig) {
+    this.repository = repository;
+    this.actionsService = actionsService;
+    this.searchConfig = historyConfig.getSearch();
+  }
+
+  /**
+   * Search actions by free text, the most relevant and then the newest actions first. Actions that
+   * have not been indexed yet by the deferred indexing are not found.
+   *
+   * @param text search text in web search syntax, e.g. <code>policy editor -delete</code>
+   * @param userId if present only actions of this user are searched
+   * @param showLastHours for which hours from the current time the actions should be searched
+   * @param pageSize maximum length of the response list
+   * @param cursor if present the page starts after the position of the cursor
+   * @param saveInterval value will be part of the response action object. This value is set in the
+   *     application properties.
+   * @return If successful list with action response objects and the cursor of the next page,
+   *     otherwise Mono error
+   */
+  public Mono<ActionsListResponseApiDto> searchActions(
+      String text,
+      Optional<String> userId,
+      Integer showLastHours,
+      Integer pageSize,
+      Optional<String> cursor,
+      Integer saveInterval) {
+    if (!searchConfig.enabled()) {
+      return getError("Search is not enabled");
+    }
+    if (Duration.ofHours(showLastHours).compareTo(searchConfig.maxWindow()) > 0) {
+      return getError(
+          "Search can only cover the last " + searchConfig.maxWindow().toHours() + " hours");
+    }
+    SearchCursor after;
+    try {
+      after = cursor.map(SearchCursor::decode).orElse(null);
+    } catch (IllegalArgumentException ex) {
+      return getError("Invalid cursor");
+    }
+    var dateAfter = Date.from(ZonedDateTime.now().minusHours(showLastHours).toInstant());
+    var search = new ActionsSearch(text, userId.orElse(null), dateAfter, after, pageSize);
+
+    return Mono.fromCallable(() -> repository.search(search))
+        .subscribeOn(Schedulers.boundedElastic())
+        .map(
+            hits -> {
+              var response =
+                  new ActionsListResponseApiDto()
+                      .actionsList(
+                          hits.stream()
+                              .map(
+                                  hit ->
+                                      actionsService
+                                          .toActionResponse(hit.action(), saveInterval)
+                                          .userId(hit.action().getUserId()))
+                              .toList())
+                      .totalCount(hits.size());
+              // a full page may be followed by more hits
+              if (hits.size() == pageSize) {
+                response.nextCursor(hits.get(hits.size() - 1).cursor().encode());
+              }
+              return response;
+            })
+        .onErrorResume(
+            QueryTimeoutException.class,
+            ex -> {
+              log.warn("Search was cancelled: {}", ex.getMessage());
+              return getError("Search was cancelled, narrow down the search text or time window");
+            })
+        .doOnError(ex -> Logger.errorLog("Search of actions cannot be executed", null));
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Keeps the actions table healthy after retention deletes. Large deletes leave dead tuples in the
+ * table and both indexes behind and let the planner statistics drift, which makes the time window
+ * queries pick bad plans. After every retention run and in between on a fixed interval the table
+ * statistics are refreshed into Micrometer gauges. After a retention run a {@code VACUUM (ANALYZE)}
+ * is issued if the dead tuples cross the configured thresholds.
+ */
+@Slf4j
+@Service
+public class TableMaintenanceService {
+
+  static final String TABLE = "actions";
+
+  private static final String TABLE_STATISTICS =
+      "SELECT n_live_tup, n_dead_tup, pg_table_size(relid) AS table_bytes"
+          + " FROM pg_stat_user_tables WHERE relname = ?";
+
+  // Estimates the expected btree size from the live tuples and the average width of the indexed
+  // columns, the difference to the actual size is reported as bloat. The estimate does not hold
+  // for the GIN indexes, whose entries are the keys within a jsonb or tsvector value.
+  private static final String INDEX_STATISTICS =
+      "SELECT i.indexrelname AS index_name, pg_relation_size(i.indexrelid) AS index_bytes,"
+          + " c.reltuples AS index_tuples, am.amname = 'btree' AS btree,"
+          + " (SELECT coalesce(sum(s.avg_width), 0) FROM pg_attribute a JOIN pg_stats s"
+          + "   ON s.schemaname = i.schemaname AND s.tablename = i.relname"
+          + "   AND s.attname = a.attname"
+          + "   WHERE a.attrelid = i.relid AND a.attnum = ANY (x.indkey::int2[])) AS key_width"
+          + " FROM pg_stat_user_indexes i"
+          + " JOIN pg_class c ON c.oid = i.indexrelid"
+          + " JOIN pg_index x ON x.indexrelid = i.indexrelid"
+          + " JOIN pg_am am ON am.oid = c.relam"
+          + " WHERE i.relname = ?";
+
+  // item pointer, index tuple header and alignment per btree entry
+  private static final int INDEX_TUPLE_OVERHEAD = 16;
+  private static final double INDEX_FILL_FACTOR = 0.9;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final HistoryConfig.Maintenance maintenanceConfig;
+  private final AtomicReference<TableStatistics> statistics =
+      new AtomicReference<>(new TableStatistics(0, 0, 0));
+  private final MultiGauge indexSize;
+  private final MultiGauge indexBloat;
+  private final Counter vacuumRuns;
+  private final Timer vacuumDuration;
+
+  public TableMaintenanceService(
+      JdbcTemplate jdbcTemplate, HistoryConfig historyConfig, MeterRegistry meterRegistry) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.maintenanceConfig = historyConfig.getMaintenance();
+
+    var tableTags = Tags.of("table", TABLE);
+    Gauge.builder("history.db.table.live.tuples", statistics, s -> s.get().liveTuples())
+        .tags(tableTags)
+        .register(meterRegistry);
+    Gauge.builder("history.db.table.dead.tuples", statistics, s -> s.get().deadTuples())
+        .tags(tableTags)
+        .register(meterRegistry);
+    Gauge.builder("history.db.table.bloat.ratio", statistics, s -> s.get().deadTupleRatio())
+        .description("Share of dead tuples in the table")
+        .tags(tableTags)
+        .register(meterRegistry);
+    Gauge.builder("history.db.table.size", statistics, s -> s.get().tableBytes())
+        .baseUnit("bytes")
+        .tags(tableTags)
+        .register(meterRegistry);
+    this.indexSize =
+        MultiGauge.builder("history.db.index.size").baseUnit("bytes").register(meterRegistry);
+    this.indexBloat =
+        MultiGauge.builder("history.db.index.bloat.ratio")
+            .description(
+                "Estimated share of the btree index that is not needed for the live tuples")
+            .register(meterRegistry);
+    this.vacuumRuns =
+        Counter.builder("history.db.vacuum.runs").tags(tableTags).register(meterRegistry);
+    this.vacuumDuration =
+        Timer.builder("history.db.vacuum").tags(tableTags).register(meterRegistry);
+  }
+
+  /**
+   * Refresh the table statistics and vacuum the actions table if the dead tuples cross the
+   * configured thresholds
+   *
+   * @param deletedRows number of rows the retention run has deleted. The statistics collector
+   *     reports dead tuples with a delay, so the deleted rows are taken as lower bound.
+   * @return If successful true if a vacuum was executed, otherwise Mono error
+   */
+  public Mono<Boolean> afterRetention(long deletedRows) {
+    if (!maintenanceConfig.enabled()) {
+      return Mono.just(false);
+    }
+    return Mono.fromCallable(() -> maintain(deletedRows)).subscribeOn(Schedulers.boundedElastic());
+  }
+
+  /**
+   * Refresh the table statistics gauges, so that they do not go stale between the retention runs
+   *
+   * @return If successful empty Mono object, otherwise Mono error
+   */
+  public Mono<Void> refresh() {
+    if (!maintenanceConfig.enabled()) {
+      return Mono.empty();
+    }
+    return Mono.fromRunnable(this::refreshStatistics)
+        .subscribeOn(Schedulers.boundedElastic())
+        .then();
+  }
+
+  private boolean maintain(long deletedRows) {
+    var current = refreshStatistics();
+    var deadTuples = Math.max(current.deadTuples(), deletedRows);
+    var total = current.liveTuples() + deadTuples;
+    var ratio = total == 0 ? 0 : (double) deadTuples / total;
+    if (deadTuples < maintenanceConfig.minDeadTuples()
+        || ratio < maintenanceConfig.deadTupleRatio()) {
+      return false;
+    }
+    log.info("Vacuum table {} with {} dead tuples ({} of all tuples)", TABLE, deadTuples, ratio);
+    // VACUUM cannot run inside a transaction block, the JdbcTemplate uses an auto-commit connection
+    vacuumDuration.record(() -> jdbcTemplate.execute("VACUUM (ANALYZE) " + TABLE));
+    vacuumRuns.increment();
+    refreshStatistics();
+    return true;
+  }
+
+  private TableStatistics refreshStatistics() {
+    var table =
+        jdbcTemplate.query(
+                TABLE_STATISTICS,
+                (rs, rowNum) ->
+                    new TableStatistics(
+                        rs.getLong("n_live_tup"),
+                        rs.getLong("n_dead_tup"),
+                        rs.getLong("table_bytes")),
+                TABLE)
+            .stream()
+            .findFirst()
+            .orElse(new TableStatistics(0, 0, 0));
+    statistics.set(table);
+
+    List<IndexStatistics> indexes =
+        jdbcTemplate.query(
+            INDEX_STATISTICS,
+            (rs, rowNum) ->
+                new IndexStatistics(
+                    rs.getString("index_name"),
+                    rs.getLong("index_bytes"),
+                    Math.max(rs.getDouble("index_tuples"), 0),
+                    rs.getInt("key_width"),
+                    rs.getBoolean("btree")),
+            TABLE);
+    indexSize.register(
+        indexes.stream().map(index -> MultiGauge.Row.of(indexTags(index), index.bytes())).toList(),
+        true);
+    indexBloat.register(
+        indexes.stream()
+            .filter(IndexStatistics::btree)
+            .map(index -> MultiGauge.Row.of(indexTags(index), index.bloatRatio()))
+            .toList(),
+        true);
+    return table;
+  }
+
+  private static Tags indexTags(IndexStatistics index) {
+    return Tags.of("table", TABLE, "index", index.name());
+  }
+
+  private record TableStatistics(long liveTuples, long deadTuples, long tableBytes) {
+    double deadTupleRatio() {
+      var total = liveTuples + deadTuples;
+      return total == 0 ? 0 : (double) deadTuples / total;
+    }
+  }
+
+  private record IndexStatistics(
+      String name, long bytes, double tuples, int keyWidth, boolean btree) {
+    double bloatRatio() {
+      if (bytes == 0) {
+        return 0;
+      }
+      var expectedBytes = tuples * (keyWidth + INDEX_TUPLE_OVERHEAD) / INDEX_FILL_FACTOR;
+      return Math.max(0, 1 - expectedBytes / bytes);
+    }
+  }
+}
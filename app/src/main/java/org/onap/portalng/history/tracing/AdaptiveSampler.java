@@ -0,0 +1,74 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import java.util.List;
+
+/**
+ * Head sampler of the adaptive sampling. Traces sampled by the caller and the baseline share of the
+ * other traces are sampled. All remaining spans are recorded without being sampled, so that {@link
+ * TailSamplingSpanProcessor} can still keep their trace once it turns out to be slow or failed.
+ *
+ * <p>The baseline is decided by the trace id, every span of a trace gets the same decision.
+ */
+public class AdaptiveSampler implements Sampler {
+
+  private final Sampler baseline;
+
+  public AdaptiveSampler(double probability) {
+    this.baseline = Sampler.traceIdRatioBased(probability);
+  }
+
+  @Override
+  public SamplingResult shouldSample(
+      Context parentContext,
+      String traceId,
+      String name,
+      SpanKind spanKind,
+      Attributes attributes,
+      List<LinkData> parentLinks) {
+    var parent = Span.fromContext(parentContext).getSpanContext();
+    if (parent.isValid() && parent.isSampled()) {
+      return SamplingResult.recordAndSample();
+    }
+    var decision =
+        baseline
+            .shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks)
+            .getDecision();
+    return decision == SamplingDecision.RECORD_AND_SAMPLE
+        ? SamplingResult.recordAndSample()
+        : SamplingResult.recordOnly();
+  }
+
+  @Override
+  public String getDescription() {
+    return "AdaptiveSampler{baseline=" + baseline.getDescription() + "}";
+  }
+}
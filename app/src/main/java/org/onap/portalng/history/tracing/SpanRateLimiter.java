@@ -0,0 +1,75 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.exporter.FinishedSpan;
+import io.micrometer.tracing.exporter.SpanExportingPredicate;
+
+/**
+ * Token bucket that caps the spans exported per second. As {@link SpanExportingPredicate} it
+ * limits the spans of sampled traces, {@link TailSamplingSpanProcessor} acquires the spans of the
+ * traces it keeps. Spans over the limit are dropped and counted in {@code
+ * history.tracing.spans.dropped}.
+ */
+public class SpanRateLimiter implements SpanExportingPredicate {
+
+  private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+  private final double permitsPerSecond;
+  private final Counter rateLimited;
+  private double permits;
+  private long refilledAt;
+
+  public SpanRateLimiter(int permitsPerSecond, MeterRegistry meterRegistry) {
+    this.permitsPerSecond = permitsPerSecond;
+    this.permits = permitsPerSecond;
+    this.refilledAt = System.nanoTime();
+    this.rateLimited = TracingMetrics.droppedSpans(meterRegistry, "rate_limit");
+  }
+
+  @Override
+  public boolean isExportable(FinishedSpan span) {
+    return tryAcquire(1);
+  }
+
+  /**
+   * Take permits for spans that are exported. Either all or none of the spans are permitted, a
+   * trace is not exported partially.
+   *
+   * @param spans number of spans
+   * @return true if the spans can be exported
+   */
+  public synchronized boolean tryAcquire(int spans) {
+    var now = System.nanoTime();
+    var refill = (now - refilledAt) / NANOS_PER_SECOND * permitsPerSecond;
+    permits = Math.min(permitsPerSecond, permits + refill);
+    refilledAt = now;
+    if (permits < spans) {
+      rateLimited.increment(spans);
+      return false;
+    }
+    permits -= spans;
+    return true;
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.onap.portalng.history.configuration.HistoryConfig;
+
+/**
+ * Tail decisions on traces that were not sampled by {@link AdaptiveSampler}. Their spans are
+ * buffered per trace until the local root span ends. The trace is kept if the root span took at
+ * least the slow threshold or a span of the trace failed, and dropped otherwise. Kept traces are
+ * exported in the export interval from a dedicated thread, ending a span never waits for the
+ * exporter.
+ *
+ * <p>The buffer is bounded by the number of spans. Spans of traces whose root does not end within
+ * the decision wait, e.g. children that end after their root, are dropped.
+ */
+@Slf4j
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+  private final SpanExporter exporter;
+  private final SpanRateLimiter rateLimiter;
+  private final long slowThresholdNanos;
+  private final long decisionWaitNanos;
+  private final int maxBufferedSpans;
+  private final Map<String, TraceBuffer> traces = new ConcurrentHashMap<>();
+  private final AtomicInteger bufferedSpans = new AtomicInteger();
+  private final BlockingQueue<SpanData> kept;
+  private final ScheduledExecutorService exportScheduler;
+  private final Counter keptTraces;
+  private final Counter droppedTraces;
+  private final Counter bufferFull;
+
+  public TailSamplingSpanProcessor(
+      SpanExporter exporter,
+      SpanRateLimiter rateLimiter,
+      HistoryConfig.Tracing tracing,
+      MeterRegistry meterRegistry) {
+    this.exporter = exporter;
+    this.rateLimiter = rateLimiter;
+    this.slowThresholdNanos = tracing.slowThreshold().toNanos();
+    this.decisionWaitNanos = tracing.decisionWait().toNanos();
+    this.maxBufferedSpans = tracing.maxBufferedSpans();
+    this.kept = new ArrayBlockingQueue<>(tracing.maxBufferedSpans());
+    this.keptTraces = TracingMetrics.tailDecisions(meterRegistry, "kept");
+    this.droppedTraces = TracingMetrics.tailDecisions(meterRegistry, "dropped");
+    this.bufferFull = TracingMetrics.droppedSpans(meterRegistry, "buffer_full");
+    this.exportScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("history-tail-sampling").daemon().factory());
+    var interval = tracing.exportInterval().toMillis();
+    exportScheduler.scheduleWithFixedDelay(
+        this::exportKept, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void onStart(Context parentContext, ReadWriteSpan span) {
+    // nothing to do, the decision is taken when the spans end
+  }
+
+  @Override
+  public boolean isStartRequired() {
+    return false;
+  }
+
+  @Override
+  public void onEnd(ReadableSpan span) {
+    if (span.getSpanContext().isSampled()) {
+      // exported by the batch span processor
+      return;
+    }
+    var traceId = span.getSpanContext().getTraceId();
+    var parent = span.getParentSpanContext();
+    if (parent.isValid() && !parent.isRemote()) {
+      buffer(traceId, span.toSpanData());
+      return;
+    }
+    var buffer = traces.remove(traceId);
+    var spans = buffer == null ? new ArrayList<SpanData>() : buffer.drain();
+    bufferedSpans.addAndGet(-spans.size());
+    var root = span.toSpanData();
+    spans.add(root);
+    var failed =
+        root.getStatus().getStatusCode() == StatusCode.ERROR || (buffer != null && buffer.failed);
+    var slow = span.getLatencyNanos() >= slowThresholdNanos;
+    if (!failed && !slow) {
+      droppedTraces.increment();
+      return;
+    }
+    if (!rateLimiter.tryAcquire(spans.size())) {
+      droppedTraces.increment();
+      return;
+    }
+    keptTraces.increment();
+    for (SpanData spanData : spans) {
+      if (!kept.offer(spanData)) {
+        bufferFull.increment();
+      }
+    }
+  }
+
+  @Override
+  public boolean isEndRequired() {
+    return true;
+  }
+
+  @Override
+  public CompletableResultCode forceFlush() {
+    return export();
+  }
+
+  @Override
+  public CompletableResultCode shutdown() {
+    exportScheduler.shutdown();
+    return export();
+  }
+
+  private void buffer(String traceId, SpanData spanData) {
+    if (bufferedSpans.incrementAndGet() > maxBufferedSpans) {
+      bufferedSpans.decrementAndGet();
+      bufferFull.increment();
+      return;
+    }
+    traces.computeIfAbsent(traceId, id -> new TraceBuffer(System.nanoTime())).add(spanData);
+  }
+
+  private void exportKept() {
+    try {
+      export().join(10, TimeUnit.SECONDS);
+      evictExpired();
+    } catch (RuntimeException e) {
+      log.warn("Export of kept traces failed: {}", e.getMessage());
+    }
+  }
+
+  private CompletableResultCode export() {
+    var spans = new ArrayList<SpanData>(kept.size());
+    kept.drainTo(spans);
+    return spans.isEmpty() ? CompletableResultCode.ofSuccess() : exporter.export(spans);
+  }
+
+  private void evictExpired() {
+    var now = System.nanoTime();
+    traces
+        .entrySet()
+        .removeIf(
+            trace -> {
+              if (now - trace.getValue().createdAt < decisionWaitNanos) {
+                return false;
+              }
+              bufferedSpans.addAndGet(-trace.getValue().size());
+              droppedTraces.increment();
+              return true;
+            });
+  }
+
+  /** Spans of a trace whose local root has not ended yet. */
+  private static final class TraceBuffer {
+    private final long createdAt;
+    private final List<SpanData> spans = new ArrayList<>();
+    private boolean failed;
+
+    private TraceBuffer(long createdAt) {
+      this.createdAt = createdAt;
+    }
+
+    private synchronized void add(SpanData spanData) {
+      spans.add(spanData);
+      failed |= spanData.getStatus().getStatusCode() == StatusCode.ERROR;
+    }
+
+    private synchronized int size() {
+      return spans.size();
+    }
+
+    private synchronized List<SpanData> drain() {
+      return new ArrayList<>(spans);
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/** Counters of the adaptive sampling. */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class TracingMetrics {
+
+  static Counter droppedSpans(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("history.tracing.spans.dropped")
+        .description("Recorded spans that were not exported")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  static Counter tailDecisions(MeterRegistry meterRegistry, String decision) {
+    return Counter.builder("history.tracing.traces")
+        .description("Tail decisions on traces that were not sampled when they started")
+        .tag("decision", decision)
+        .register(meterRegistry);
+  }
+}
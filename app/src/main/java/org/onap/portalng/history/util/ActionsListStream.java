@@ -0,0 +1,79 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes an actions list response, {@code {"actionsList":[...],"totalCount":n}}, one element at a
+ * time. The opening of the envelope is only written together with the first element, so an error
+ * that occurs before the first element can still be answered with a problem response.
+ */
+public final class ActionsListStream {
+
+  private static final byte[] OPEN = "{\"actionsList\":[".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] SEPARATOR = ",".getBytes(StandardCharsets.UTF_8);
+
+  private ActionsListStream() {}
+
+  /**
+   * @param actions elements of the list, serialized with the object mapper
+   * @param objectMapper mapper used for every element
+   * @param bufferFactory factory of the response buffers
+   * @return the serialized response
+   */
+  public static Flux<DataBuffer> encode(
+      Flux<?> actions, ObjectMapper objectMapper, DataBufferFactory bufferFactory) {
+    var count = new AtomicInteger();
+    var elements =
+        actions.map(
+            action -> {
+              var prefix = count.getAndIncrement() == 0 ? OPEN : SEPARATOR;
+              var json = toJson(objectMapper, action);
+              var buffer = bufferFactory.allocateBuffer(prefix.length + json.length);
+              return buffer.write(prefix).write(json);
+            });
+    var end =
+        Mono.fromSupplier(
+            () -> {
+              var close = count.get() == 0 ? new String(OPEN, StandardCharsets.UTF_8) : "";
+              close += "],\"totalCount\":" + count.get() + "}";
+              return bufferFactory.wrap(close.getBytes(StandardCharsets.UTF_8));
+            });
+    return Flux.concat(elements, end);
+  }
+
+  private static byte[] toJson(ObjectMapper objectMapper, Object value) {
+    try {
+      return objectMapper.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Action cannot be serialized", e);
+    }
+  }
+}
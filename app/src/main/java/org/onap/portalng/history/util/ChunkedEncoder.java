@@ -0,0 +1,110 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Packs a stream of small parts, e.g. the lines of an export, into response buffers of about
+ * {@value #CHUNK_SIZE} bytes and optionally gzip compresses them on the way. Only the current
+ * chunk is held in memory, the parts are requested from upstream as the chunks are written.
+ */
+public final class ChunkedEncoder {
+
+  static final int CHUNK_SIZE = 8192;
+
+  private ChunkedEncoder() {}
+
+  /**
+   * @param parts bytes that are written one after the other
+   * @param gzip compress the chunks into a single gzip stream
+   * @param bufferFactory factory of the response buffers
+   * @return the chunks
+   */
+  public static Flux<DataBuffer> encode(
+      Flux<byte[]> parts, boolean gzip, DataBufferFactory bufferFactory) {
+    return Flux.using(
+        () -> new Chunk(gzip),
+        chunk ->
+            Flux.concat(
+                parts.<DataBuffer>handle(
+                    (part, sink) -> {
+                      chunk.write(part);
+                      if (chunk.size() >= CHUNK_SIZE) {
+                        sink.next(chunk.drain(bufferFactory));
+                      }
+                    }),
+                Mono.fromSupplier(() -> chunk.finish(bufferFactory))),
+        Chunk::close);
+  }
+
+  private static final class Chunk {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(CHUNK_SIZE * 2);
+    private final OutputStream out;
+
+    Chunk(boolean gzip) throws IOException {
+      this.out = gzip ? new GZIPOutputStream(bytes, CHUNK_SIZE) : bytes;
+    }
+
+    void write(byte[] part) {
+      try {
+        out.write(part);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    int size() {
+      return bytes.size();
+    }
+
+    DataBuffer drain(DataBufferFactory bufferFactory) {
+      var buffer = bufferFactory.wrap(bytes.toByteArray());
+      bytes.reset();
+      return buffer;
+    }
+
+    /** Write the gzip trailer, the last chunk is null if nothing is left. */
+    DataBuffer finish(DataBufferFactory bufferFactory) {
+      close();
+      return bytes.size() == 0 ? null : drain(bufferFactory);
+    }
+
+    void close() {
+      try {
+        // releases the native deflater, also when the export is cancelled
+        out.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.openapi.model.CreateActionRequestApiDto;
+import org.onap.portalng.history.repository.ActionPayloadsRepository;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * The writes of a new action with coalescing, payload deduplication and the recent distinct view
+ * enabled together.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ActionWriteIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private ActionPayloadsRepository actionPayloadsRepository;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.coalescing.enabled", () -> "true");
+    registry.add("history.coalescing.window", () -> "10s");
+    registry.add("history.payload-dedup.enabled", () -> "true");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build()
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")));
+    actionsRepository.truncateTable();
+    actionPayloadsRepository.deleteAll();
+  }
+
+  @Test
+  void thatCoalescedDeduplicatedActionsAreInTheRecentView() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    createAction(
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "a", "1", "SO", 0, 0, 5, "user", createdAt));
+    final var repetition =
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "a", "1", "SO", 0, 0, 2, "user", createdAt);
+
+    assertEquals(2, createAction(repetition).getRepeatCount());
+    assertEquals(1, actionsRepository.count());
+    assertEquals(1, actionPayloadsRepository.count());
+    final var stored = actionsRepository.findAll().get(0);
+    assertNull(stored.getAction());
+    assertNotNull(stored.getPayloadHash());
+
+    final var recent =
+        webTestClient
+            .get()
+            .uri("/v1/actions/user/recent-distinct?key=/downStreamSystem")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(ActionsListResponseApiDto.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertEquals(1, recent.getTotalCount());
+    final var action = recent.getActionsList().get(0);
+    assertEquals(2, action.getRepeatCount());
+    assertEquals(repetition.getActionCreatedAt(), action.getActionCreatedAt());
+    assertEquals("a", ((Map<?, ?>) action.getAction()).get("message"));
+  }
+
+  private ActionResponseApiDto createAction(CreateActionRequestApiDto actionRequest) {
+    return webTestClient
+        .post()
+        .uri("/v1/actions/user")
+        .body(Mono.just(actionRequest), CreateActionRequestApiDto.class)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(ActionResponseApiDto.class)
+        .returnResult()
+        .getResponseBody();
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.services.ArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ArchiveIntegrationTest {
+
+  @TempDir static Path archiveDirectory;
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private ArchiveService archiveService;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.archive.enabled", () -> "true");
+    registry.add("history.archive.directory", () -> archiveDirectory.toString());
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatExpiredActionsAreMovedIntoTheArchive() {
+    final List<ActionsDao> expiredActions =
+        ActionFixtures.actionsDaoListHourOffsetOnly(
+            10,
+            "user",
+            OffsetDateTime.of(LocalDateTime.now().minusHours(96), ZoneOffset.UTC)
+                .truncatedTo(ChronoUnit.SECONDS));
+    final List<ActionsDao> recentActions =
+        ActionFixtures.actionsDaoList(
+            8,
+            "user2",
+            OffsetDateTime.of(LocalDateTime.now().minusHours(24), ZoneOffset.UTC)
+                .truncatedTo(ChronoUnit.SECONDS));
+    actionsRepository.saveAll(expiredActions);
+    actionsRepository.saveAll(recentActions);
+
+    assertEquals(10L, archiveService.archiveActions(72).block());
+    assertEquals(8L, actionsRepository.count());
+
+    final var response =
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+            .get()
+            .uri(
+                uriBuilder ->
+                    uriBuilder
+                        .path("/v1/archive/actions")
+                        .queryParam("from", OffsetDateTime.now(ZoneOffset.UTC).minusHours(200))
+                        .queryParam("userId", "user")
+                        .queryParam("pageSize", 20)
+                        .build())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(ActionsListResponseApiDto.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertEquals(10, response.getTotalCount());
+    // newest archived action first
+    assertEquals(
+        expiredActions.get(0).getAction(),
+        objectMapper.valueToTree(response.getActionsList().get(0).getAction()));
+  }
+
+  @Test
+  void thatOverlappingSegmentsAreMergedNewestFirst() {
+    // two archive runs write segments of the same partition with interleaved actions
+    final var newest =
+        OffsetDateTime.now(ZoneOffset.UTC)
+            .minusHours(96)
+            .truncatedTo(ChronoUnit.HOURS)
+            .plusMinutes(55);
+    for (var run = 0; run < 2; run++) {
+      final var actions = new ArrayList<ActionsDao>();
+      for (var i = run; i < 10; i += 2) {
+        actions.add(
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "action" + i, "1", "SO", 0, i * 5, 0, "merged", newest));
+      }
+      actionsRepository.saveAll(actions);
+      assertEquals(5L, archiveService.archiveActions(72).block());
+    }
+
+    final var response =
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "merged")))
+            .get()
+            .uri(
+                uriBuilder ->
+                    uriBuilder
+                        .path("/v1/archive/actions")
+                        .queryParam("from", OffsetDateTime.now(ZoneOffset.UTC).minusHours(200))
+                        .queryParam("userId", "merged")
+                        .queryParam("pageSize", 5)
+                        .build())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(ActionsListResponseApiDto.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertEquals(
+        List.of("action0", "action1", "action2", "action3", "action4"),
+        response.getActionsList().stream()
+            .map(action -> objectMapper.valueToTree(action.getAction()).get("message").asText())
+            .toList());
+  }
+}
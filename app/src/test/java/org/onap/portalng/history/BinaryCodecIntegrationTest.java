@@ -0,0 +1,139 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.configuration.WebFluxCodecConfig;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BinaryCodecIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private ObjectMapper objectMapper;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatActionsAreExchangedAsCbor() throws IOException {
+    assertRoundTrip(MediaType.APPLICATION_CBOR, objectMapper.copyWith(new CBORFactory()));
+  }
+
+  @Test
+  void thatActionsAreExchangedAsSmile() throws IOException {
+    assertRoundTrip(
+        WebFluxCodecConfig.APPLICATION_SMILE, objectMapper.copyWith(new SmileFactory()));
+  }
+
+  @Test
+  void thatProblemsStayJson() {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri("/v1/actions/user?match=message:a")
+        .accept(MediaType.APPLICATION_CBOR)
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectHeader()
+        .contentType("application/problem+json");
+  }
+
+  private void assertRoundTrip(MediaType mediaType, ObjectMapper mapper) throws IOException {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    final var actionRequest =
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "a", "1", "SO", 0, 0, 5, "user", createdAt);
+
+    final var created =
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+            .post()
+            .uri("/v1/actions/user")
+            .contentType(mediaType)
+            .accept(mediaType)
+            .bodyValue(mapper.writeValueAsBytes(actionRequest))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(mediaType)
+            .expectBody(byte[].class)
+            .returnResult()
+            .getResponseBody();
+    assertEquals(
+        actionRequest.getActionCreatedAt(),
+        mapper.readValue(created, ActionResponseApiDto.class).getActionCreatedAt());
+
+    final var listed =
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+            .get()
+            .uri("/v1/actions/user")
+            .accept(mediaType)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(mediaType)
+            .expectBody(byte[].class)
+            .returnResult()
+            .getResponseBody();
+    final var actions = mapper.readValue(listed, ActionsListResponseApiDto.class);
+    assertEquals(1, actions.getTotalCount());
+    assertEquals(
+        "Instantiation", ((Map<?, ?>) actions.getActionsList().get(0).getAction()).get("type"));
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.diagnostics.BlockingDetector;
+import org.onap.portalng.history.diagnostics.BlockingDetector.Detection;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.openapi.model.CreateActionRequestApiDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+/**
+ * The blocking detection is enabled in failing mode for all tests by the test configuration. The
+ * requests are sent to the running server, so that they are handled on the Netty event loops. The
+ * bearer token is the user id, see {@link JwtDecoderConfig}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BlockingDetectionIntegrationTest {
+
+  @TestConfiguration
+  static class JwtDecoderConfig {
+    @Bean
+    ReactiveJwtDecoder jwtDecoder() {
+      return token ->
+          Mono.just(Jwt.withTokenValue(token).header("alg", "none").subject(token).build());
+    }
+  }
+
+  @Value("${local.server.port}")
+  private int port;
+
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private BlockingDetector blockingDetector;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToServer()
+            .baseUrl("http://localhost:" + port)
+            .defaultHeader("Authorization", "Bearer user")
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatRequestsDoNotBlockTheNonBlockingThreads() {
+    final var before = blockingDetector.calls(Detection.JDBC);
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+    final var actionRequest =
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "a", "1", "SO", 0, 0, 5, "user", createdAt);
+
+    webTestClient
+        .post()
+        .uri("/v1/actions/user")
+        .body(Mono.just(actionRequest), CreateActionRequestApiDto.class)
+        .exchange()
+        .expectStatus()
+        .isOk();
+    webTestClient.get().uri("/v1/actions/user").exchange().expectStatus().isOk();
+
+    assertEquals(before, blockingDetector.calls(Detection.JDBC));
+  }
+
+  @Test
+  void thatJdbcOnNonBlockingThreadIsRejected() {
+    final var before = jdbcCalls();
+
+    StepVerifier.create(
+            Mono.fromCallable(actionsRepository::count).subscribeOn(Schedulers.parallel()))
+        .expectError()
+        .verify(Duration.ofSeconds(10));
+
+    assertEquals(before + 1, jdbcCalls());
+    // the same call on a blocking thread passes
+    StepVerifier.create(
+            Mono.fromCallable(actionsRepository::count).subscribeOn(Schedulers.boundedElastic()))
+        .expectNext(0L)
+        .verifyComplete();
+  }
+
+  @Test
+  void thatBlockedNonBlockingThreadIsSampled() throws InterruptedException {
+    final var before = blockingDetector.calls(Detection.SAMPLING);
+    final var started = new CountDownLatch(1);
+    final var release = new CountDownLatch(1);
+    Mono.fromCallable(
+            () -> {
+              started.countDown();
+              return release.await(10, TimeUnit.SECONDS);
+            })
+        .subscribeOn(Schedulers.parallel())
+        .subscribe();
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    try {
+      var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (blockingDetector.calls(Detection.SAMPLING) == before
+          && System.nanoTime() < deadline) {
+        blockingDetector.sample();
+        Thread.sleep(10);
+      }
+    } finally {
+      release.countDown();
+    }
+
+    assertTrue(blockingDetector.calls(Detection.SAMPLING) > before);
+  }
+
+  private double jdbcCalls() {
+    return meterRegistry
+        .get("history.blocking.calls")
+        .tag("detection", "jdbc")
+        .functionCounter()
+        .count();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.openapi.model.CreateActionRequestApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CoalescingIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.coalescing.enabled", () -> "true");
+    registry.add("history.coalescing.window", () -> "10s");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatRepeatedActionsAreCoalesced() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    final var action =
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "a", "1", "SO", 0, 0, 5, "user", createdAt);
+    final var repetition =
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "a", "1", "SO", 0, 0, 2, "user", createdAt);
+    final var outsideWindow =
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "a", "1", "SO", 0, 0, -60, "user", createdAt);
+
+    assertEquals(1, createAction(action).getRepeatCount());
+    final var coalesced = createAction(repetition);
+    assertEquals(2, coalesced.getRepeatCount());
+    assertEquals(repetition.getActionCreatedAt(), coalesced.getActionCreatedAt());
+    assertEquals(1, actionsRepository.count());
+
+    assertEquals(1, createAction(outsideWindow).getRepeatCount());
+    assertEquals(2, actionsRepository.count());
+  }
+
+  private ActionResponseApiDto createAction(CreateActionRequestApiDto actionRequest) {
+    return webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/v1/actions/user")
+        .body(Mono.just(actionRequest), CreateActionRequestApiDto.class)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(ActionResponseApiDto.class)
+        .returnResult()
+        .getResponseBody();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ExportIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private ObjectMapper objectMapper;
+
+  private WebTestClient webTestClient;
+  private OffsetDateTime createdAt;
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+    createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.saveAll(
+        List.of(
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "a,b", "1", "SO", 1, 0, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Deletion", "delete", "c", "2", "SO", 2, 0, 0, "other", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Deletion", "delete", "d", "3", "SO", 5, 0, 0, "user", createdAt)));
+  }
+
+  @Test
+  void thatActionsAreExportedAsNdjson() throws IOException {
+    final var lines = export("ndjson", "identity", false).split("\n");
+
+    assertEquals(2, lines.length);
+    final var oldest = objectMapper.readValue(lines[0], ActionResponseApiDto.class);
+    assertEquals("other", oldest.getUserId());
+    assertEquals(createdAt.minusHours(2), oldest.getActionCreatedAt());
+    assertEquals("user", objectMapper.readValue(lines[1], ActionResponseApiDto.class).getUserId());
+  }
+
+  @Test
+  void thatActionsAreExportedAsGzippedCsv() throws IOException {
+    final var lines = export("csv", "gzip", true).split("\n");
+
+    assertEquals(3, lines.length);
+    assertEquals("userId,actionCreatedAt,repeatCount,action", lines[0]);
+    // the seconds and milliseconds are written even if they are zero
+    final var oldestCreatedAt =
+        createdAt.minusHours(2).format(DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss"));
+    assertTrue(lines[1].startsWith("other," + oldestCreatedAt + ".000Z,1,\"{"));
+    assertTrue(lines[2].contains("\"\"message\"\":\"\"a,b\"\""));
+  }
+
+  @Test
+  void thatGzipWithZeroQualityIsNotUsed() throws IOException {
+    assertEquals(3, export("csv", "gzip;q=0.000, identity", false).split("\n").length);
+  }
+
+  @Test
+  void thatEmptyTimeframesAreRejected() {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/v1/export/actions")
+                    .queryParam("from", createdAt.toString())
+                    .queryParam("to", createdAt.minusHours(1).toString())
+                    .build())
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
+  private String export(String format, String acceptEncoding, boolean gzip) throws IOException {
+    final var result =
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+            .get()
+            .uri(
+                uriBuilder ->
+                    uriBuilder
+                        .path("/v1/export/actions")
+                        .queryParam("from", createdAt.minusHours(3).toString())
+                        .queryParam("format", format)
+                        .build())
+            .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult();
+    final var body = result.getResponseBodyContent();
+    assertEquals(
+        gzip ? "gzip" : null, result.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    if (!gzip) {
+      return new String(body, StandardCharsets.UTF_8);
+    }
+    try (var in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FilterTimeoutIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.filter.statement-timeout", () -> "1ms");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+    // enough actions that the containment filter cannot scan them within the timeout
+    jdbcTemplate.update(
+        "INSERT INTO actions (id, user_id, action_created_at, action)"
+            + " SELECT md5(i::text), 'user', now() - interval '1 minute',"
+            + " jsonb_build_object('type', 'Instantiation', 'message', repeat('x', 200) || i)"
+            + " FROM generate_series(1, 50000) i");
+  }
+
+  @Test
+  void thatCancelledListQueriesAreReported() {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/v1/actions")
+                    .queryParam("filter", "{filter}")
+                    .queryParam("showLastHours", 24)
+                    .build("{\"type\":\"Deletion\"}"))
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectBody()
+        .jsonPath("$.detail")
+        .value(String.class, detail -> assertTrue(detail.startsWith("Query was cancelled")));
+  }
+}
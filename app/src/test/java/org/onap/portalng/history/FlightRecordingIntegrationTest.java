@@ -0,0 +1,149 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FlightRecordingIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.flight-recorder.enabled", () -> "true");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatTheApplicationEventsAreRecordedOnDemand() throws IOException {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.saveAll(
+        List.of(
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "a", "1", "SO", 0, 1, 0, "user", createdAt)));
+    final var client =
+        webTestClient.mutateWith(
+            SecurityMockServerConfigurers.mockJwt()
+                .jwt(jwt -> jwt.claim("sub", "user"))
+                .authorities(new SimpleGrantedAuthority("SCOPE_history.admin")));
+
+    client
+        .post()
+        .uri("/actuator/flightrecording/start")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.state")
+        .isEqualTo("RUNNING");
+    client.get().uri("/v1/actions/user").exchange().expectStatus().isOk();
+    client.post().uri("/actuator/flightrecording/stop").exchange().expectStatus().isOk();
+
+    final var recording =
+        client
+            .get()
+            .uri("/actuator/flightrecording/on-demand")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(byte[].class)
+            .returnResult()
+            .getResponseBody();
+    assertNotNull(recording);
+
+    final var file = Files.createTempFile("recording", ".jfr");
+    try {
+      Files.write(file, recording);
+      final var events =
+          RecordingFile.readAllEvents(file).stream()
+              .map(RecordedEvent::getEventType)
+              .map(EventType::getName)
+              .toList();
+      assertTrue(events.contains("org.onap.portalng.history.Request"));
+      assertTrue(events.contains("org.onap.portalng.history.SchedulerHandOff"));
+      assertTrue(events.contains("org.onap.portalng.history.RepositoryCall"));
+      assertTrue(events.contains("org.onap.portalng.history.JsonEncoding"));
+      assertFalse(events.contains("jdk.InitialEnvironmentVariable"));
+      assertFalse(events.contains("jdk.InitialSystemProperty"));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  void thatRecordingsAreOnlyDownloadedWithAToken() {
+    webTestClient
+        .get()
+        .uri("/actuator/flightrecording/on-demand")
+        .exchange()
+        .expectStatus()
+        .isUnauthorized();
+  }
+
+  @Test
+  void thatRecordingsAreOnlyStartedByAdmins() {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/actuator/flightrecording/start")
+        .exchange()
+        .expectStatus()
+        .isForbidden();
+  }
+}
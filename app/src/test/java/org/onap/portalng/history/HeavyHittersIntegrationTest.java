@@ -0,0 +1,81 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class HeavyHittersIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.heavy-hitters.enabled", () -> "true");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatHeavyHittersAreOnlyListedForAdmins() {
+    final var user =
+        webTestClient.mutateWith(
+            SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "heavy")));
+    user.get().uri("/v1/actions/heavy").exchange().expectStatus().isOk();
+
+    webTestClient.get().uri("/actuator/heavyhitters").exchange().expectStatus().isUnauthorized();
+    user.get().uri("/actuator/heavyhitters/user").exchange().expectStatus().isForbidden();
+    webTestClient
+        .mutateWith(
+            SecurityMockServerConfigurers.mockJwt()
+                .authorities(new SimpleGrantedAuthority("SCOPE_history.admin")))
+        .get()
+        .uri("/actuator/heavyhitters/user")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.current.top[?(@.key == 'heavy')]")
+        .exists();
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.repository.HotFieldsChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class HotFieldsIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private DataSource dataSource;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatActionsAreFilteredByHotFields() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.saveAll(
+        List.of(
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "a", "1", "SO", 0, 1, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "b", "2", "SDC", 0, 2, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Deletion", "delete", "c", "3", "SO", 0, 3, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "d", "4", "SO", 0, 4, 0, "other", createdAt)));
+
+    assertEquals(3, getActions("/v1/actions?match=type:Instantiation").getTotalCount());
+    assertEquals(
+        1,
+        getActions("/v1/actions/user?match=type:Instantiation&match=downStreamSystem:SO")
+            .getTotalCount());
+    assertEquals(0, getActions("/v1/actions/user?match=type:Unknown").getTotalCount());
+  }
+
+  @Test
+  void thatPayloadsAreProjected() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.save(
+        ActionFixtures.generateActionsDao(
+            "Instantiation", "create", "a", "1", "SO", 0, 1, 0, "user", createdAt));
+
+    final var response =
+        getActions("/v1/actions/user?fields=/type&fields=/downStreamSystem&fields=/unknown");
+
+    assertEquals(1, response.getTotalCount());
+    final var projected = (Map<?, ?>) response.getActionsList().get(0).getAction();
+    assertEquals(3, projected.size());
+    assertEquals("Instantiation", projected.get("/type"));
+    assertEquals("SO", projected.get("/downStreamSystem"));
+    assertNull(projected.get("/unknown"));
+  }
+
+  @Test
+  void thatUnknownHotFieldsAreRejected() {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri("/v1/actions/user?match=message:a")
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
+  @Test
+  void thatActionsAreFilteredByContainment() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.saveAll(
+        List.of(
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "a", "1", "SO", 0, 1, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "b", "2", "SDC", 0, 2, 0, "user", createdAt)));
+
+    final var response =
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+            .get()
+            .uri(
+                uriBuilder ->
+                    uriBuilder
+                        .path("/v1/actions")
+                        .queryParam("filter", "{filter}")
+                        .queryParam("showLastHours", 24)
+                        .build("{\"downStreamSystem\":\"SDC\",\"message\":\"b\"}"))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(ActionsListResponseApiDto.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertEquals(1, response.getTotalCount());
+  }
+
+  @Test
+  void thatFiltersOutsideTheMaxWindowAreRejected() {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri(
+            uriBuilder ->
+                uriBuilder
+                    .path("/v1/actions")
+                    .queryParam("filter", "{filter}")
+                    .queryParam("showLastHours", 72)
+                    .build("{\"type\":\"Instantiation\"}"))
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
+  @Test
+  void thatUndeclaredHotFieldColumnsAreKeptByDefault() throws Exception {
+    final var change = new HotFieldsChange();
+    change.setPaths("type");
+    try (var connection = dataSource.getConnection()) {
+      change.execute(
+          DatabaseFactory.getInstance()
+              .findCorrectDatabaseImplementation(new JdbcConnection(connection)));
+    }
+
+    final var columns =
+        jdbcTemplate.queryForList(
+            "SELECT column_name FROM information_schema.columns WHERE table_name = 'actions'",
+            String.class);
+    assertTrue(columns.contains("hot_type"));
+    assertTrue(columns.contains("hot_down_stream_system"));
+  }
+
+  private ActionsListResponseApiDto getActions(String uri) {
+    return webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri(uri)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(ActionsListResponseApiDto.class)
+        .returnResult()
+        .getResponseBody();
+  }
+}
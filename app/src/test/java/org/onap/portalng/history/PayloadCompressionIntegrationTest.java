@@ -0,0 +1,132 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.entities.ActionsDao;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.openapi.model.CreateActionRequestApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PayloadCompressionIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private ActionsRepository actionsRepository;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.payload-compression.enabled", () -> "true");
+    registry.add("history.payload-compression.threshold", () -> "1KB");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatLargePayloadsAreStoredCompressedAndReadBack() {
+    final var createdAt =
+        OffsetDateTime.of(LocalDateTime.now(), ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    final CreateActionRequestApiDto largeAction =
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "x".repeat(4096), "1", "SO", 1, 0, 0, "user", createdAt);
+    final CreateActionRequestApiDto smallAction =
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "action", "2", "SO", 0, 0, 0, "user", createdAt);
+
+    createAction(largeAction);
+    createAction(smallAction);
+
+    final var stored = actionsRepository.findAll();
+    assertEquals(2, stored.size());
+    final ActionsDao compressed =
+        stored.stream().filter(action -> action.getActionCompressed() != null).findFirst().get();
+    assertNull(compressed.getAction());
+    assertEquals(
+        1, stored.stream().filter(action -> action.getActionCompressed() == null).count());
+
+    final var response =
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+            .get()
+            .uri("/v1/actions/user")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(ActionsListResponseApiDto.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertNotNull(response);
+    assertEquals(2, response.getTotalCount());
+    // newest first, the large payload is inflated while the response is written
+    assertEquals(
+        objectMapper.valueToTree(smallAction.getAction()),
+        objectMapper.valueToTree(response.getActionsList().get(0).getAction()));
+    assertEquals(
+        objectMapper.valueToTree(largeAction.getAction()),
+        objectMapper.valueToTree(response.getActionsList().get(1).getAction()));
+  }
+
+  private void createAction(CreateActionRequestApiDto actionRequest) {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/v1/actions/user")
+        .body(Mono.just(actionRequest), CreateActionRequestApiDto.class)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(ActionResponseApiDto.class);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.openapi.model.CreateActionRequestApiDto;
+import org.onap.portalng.history.repository.ActionPayloadsRepository;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PayloadDedupIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private ActionPayloadsRepository actionPayloadsRepository;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.payload-dedup.enabled", () -> "true");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+    actionPayloadsRepository.deleteAll();
+  }
+
+  @Test
+  void thatEqualPayloadsAreStoredOnce() {
+    final CreateActionRequestApiDto actionRequest =
+        ActionFixtures.generateActionRequest(
+            "Instantiation",
+            "create",
+            "action",
+            "1",
+            "SO",
+            0,
+            0,
+            0,
+            "user",
+            OffsetDateTime.of(LocalDateTime.now(), ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS));
+
+    createAction(actionRequest);
+    createAction(actionRequest);
+
+    assertEquals(2, actionsRepository.count());
+    assertEquals(1, actionPayloadsRepository.count());
+    assertNull(actionsRepository.findAll().get(0).getAction());
+
+    final var response =
+        webTestClient
+            .mutateWith(
+                SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+            .get()
+            .uri("/v1/actions/user")
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(ActionsListResponseApiDto.class)
+            .returnResult()
+            .getResponseBody();
+
+    assertEquals(2, response.getTotalCount());
+    assertEquals(
+        objectMapper.valueToTree(actionRequest.getAction()),
+        objectMapper.valueToTree(response.getActionsList().get(1).getAction()));
+  }
+
+  private void createAction(CreateActionRequestApiDto actionRequest) {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/v1/actions/user")
+        .body(Mono.just(actionRequest), CreateActionRequestApiDto.class)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(ActionResponseApiDto.class);
+  }
+}
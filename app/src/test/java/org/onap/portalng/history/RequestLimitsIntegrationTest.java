@@ -0,0 +1,158 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RequestLimitsIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.request-limits.max-body-size", () -> "1KB");
+    registry.add("history.request-limits.max-nesting-depth", () -> "8");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatBodiesWithinTheLimitsAreRecorded() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    final var recorded = recordedPayloads();
+
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/v1/actions/user")
+        .bodyValue(
+            ActionFixtures.generateActionRequest(
+                "Instantiation", "create", "a", "1", "SO", 0, 0, 5, "user", createdAt))
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    assertEquals(recorded + 1, recordedPayloads());
+  }
+
+  @Test
+  void thatBodiesWithALargerContentLengthAreRejected() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/v1/actions/user")
+        .bodyValue(
+            ActionFixtures.generateActionRequest(
+                "Instantiation", "create", "x".repeat(2048), "1", "SO", 0, 0, 5, "user", createdAt))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(413)
+        .expectHeader()
+        .contentType("application/problem+json");
+  }
+
+  @Test
+  void thatStreamedBodiesAboveTheLimitAreRejected() {
+    // a body without Content-Length, only the codec can tell that it is too large
+    final var body =
+        Flux.just("{\"userId\":\"user\",\"actionCreatedAt\":\"2026-01-01T00:00:00Z\",\"action\":{")
+            .concatWith(Flux.range(0, 100).map(i -> "\"key" + i + "\":\"0123456789\","))
+            .concatWith(Flux.just("\"last\":0}}"));
+
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/v1/actions/user")
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(body, String.class)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(413)
+        .expectHeader()
+        .contentType("application/problem+json");
+  }
+
+  @Test
+  void thatDeeplyNestedBodiesAreRejected() {
+    final var body =
+        "{\"userId\":\"user\",\"actionCreatedAt\":\"2026-01-01T00:00:00Z\",\"action\":{\"a\":"
+            + "[".repeat(16)
+            + "]".repeat(16)
+            + "}}";
+
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/v1/actions/user")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(body)
+        .exchange()
+        .expectStatus()
+        .isBadRequest()
+        .expectHeader()
+        .contentType("application/problem+json");
+
+    assertEquals(0, actionsRepository.count());
+  }
+
+  private long recordedPayloads() {
+    final var summary =
+        meterRegistry
+            .find("history.request.payload")
+            .tags("method", "POST", "uri", "/v1/actions/{userId}")
+            .summary();
+    return summary == null ? 0 : summary.count();
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.openapi.model.ActionResponseApiDto;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.openapi.model.CreateActionRequestApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SearchIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.search.enabled", () -> "true");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatActionsAreFoundByTextAndPaginatedWithCursor() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    createAction(
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "policy editor", "1", "SO", 0, 1, 0, "user", createdAt));
+    createAction(
+        ActionFixtures.generateActionRequest(
+            "Instantiation", "create", "policy editor", "2", "SO", 0, 2, 0, "user", createdAt));
+    createAction(
+        ActionFixtures.generateActionRequest(
+            "Deletion", "delete", "service catalog", "3", "SDC", 0, 3, 0, "user", createdAt));
+
+    final var firstPage = search(uriBuilder -> uriBuilder.queryParam("q", "policy editor"));
+    assertEquals(1, firstPage.getTotalCount());
+    assertEquals("user", firstPage.getActionsList().get(0).getUserId());
+    assertNotNull(firstPage.getNextCursor());
+
+    final var secondPage =
+        search(
+            uriBuilder ->
+                uriBuilder
+                    .queryParam("q", "policy editor")
+                    .queryParam("cursor", firstPage.getNextCursor()));
+    assertEquals(1, secondPage.getTotalCount());
+    assertNotEquals(
+        firstPage.getActionsList().get(0).getActionCreatedAt(),
+        secondPage.getActionsList().get(0).getActionCreatedAt());
+
+    final var lastPage =
+        search(
+            uriBuilder ->
+                uriBuilder
+                    .queryParam("q", "policy editor")
+                    .queryParam("cursor", secondPage.getNextCursor()));
+    assertEquals(0, lastPage.getTotalCount());
+    assertNull(lastPage.getNextCursor());
+  }
+
+  private ActionsListResponseApiDto search(UnaryOperator<UriBuilder> queryParams) {
+    return webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri(
+            uriBuilder ->
+                queryParams
+                    .apply(uriBuilder.path("/v1/search/actions").queryParam("pageSize", 1))
+                    .build())
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(ActionsListResponseApiDto.class)
+        .returnResult()
+        .getResponseBody();
+  }
+
+  private void createAction(CreateActionRequestApiDto actionRequest) {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .post()
+        .uri("/v1/actions/user")
+        .body(Mono.just(actionRequest), CreateActionRequestApiDto.class)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(ActionResponseApiDto.class);
+  }
+}
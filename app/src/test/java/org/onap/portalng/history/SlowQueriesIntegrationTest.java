@@ -0,0 +1,131 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.diagnostics.ExplainPlanCollector;
+import org.onap.portalng.history.diagnostics.SlowQueryRecorder;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class SlowQueriesIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private SlowQueryRecorder slowQueryRecorder;
+  @Autowired private ExplainPlanCollector explainPlanCollector;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    // every statement is slow, the plans are only captured when the test asks for them
+    registry.add("history.slow-queries.enabled", () -> "true");
+    registry.add("history.slow-queries.threshold", () -> "0ms");
+    registry.add("history.slow-queries.explain-top", () -> "50");
+    registry.add("history.slow-queries.explain-interval", () -> "1h");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+    slowQueryRecorder.clear();
+  }
+
+  @Test
+  void thatSlowStatementsAreListedWithTheirPlan() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.saveAll(
+        List.of(
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "a", "1", "SO", 0, 1, 0, "user", createdAt)));
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri("/v1/actions/user")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    explainPlanCollector.explainTopStatement();
+
+    final var explained =
+        slowQueryRecorder.top(50).stream().filter(offender -> offender.plan() != null).toList();
+    assertFalse(explained.isEmpty());
+    assertTrue(
+        explained.getFirst().plan().lines().stream()
+            .anyMatch(line -> line.startsWith("Execution Time")));
+    // the user id bound to the statement is not printed into the plan
+    assertTrue(
+        explained.stream()
+            .flatMap(offender -> offender.plan().lines().stream())
+            .noneMatch(line -> line.contains("'user'")));
+
+    webTestClient.get().uri("/actuator/slowqueries").exchange().expectStatus().isUnauthorized();
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri("/actuator/slowqueries")
+        .exchange()
+        .expectStatus()
+        .isForbidden();
+    webTestClient
+        .mutateWith(
+            SecurityMockServerConfigurers.mockJwt()
+                .authorities(new SimpleGrantedAuthority("SCOPE_history.admin")))
+        .get()
+        .uri("/actuator/slowqueries")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.recent")
+        .isNotEmpty()
+        .jsonPath("$.top[0].sql")
+        .isNotEmpty()
+        // only the types of the parameters are exposed
+        .jsonPath("$.recent[?(@.parameters contains 'user')]")
+        .doesNotExist();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StageMetricsIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private WebTestClient webTestClient;
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatTheStagesOfGetActionsAreRecorded() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.saveAll(
+        List.of(
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "a", "1", "SO", 0, 1, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "b", "2", "SO", 0, 2, 0, "user", createdAt)));
+    final var repositoryCalls = timerCount("history.actions.repository");
+    final var waits = timerCount("history.actions.scheduler.wait");
+    final var rows = meterRegistry.get("history.actions.rows").tag("operation", "getActions");
+    final var rowsRecorded = rows.summary().totalAmount();
+    final var encoded =
+        meterRegistry.find("history.encode").tag("type", "ActionsListResponseApiDto").timer();
+    final var encodings = encoded == null ? 0 : encoded.count();
+
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri("/v1/actions/user")
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    assertEquals(repositoryCalls + 1, timerCount("history.actions.repository"));
+    assertEquals(waits + 1, timerCount("history.actions.scheduler.wait"));
+    assertEquals(rowsRecorded + 2, rows.summary().totalAmount());
+    assertTrue(
+        meterRegistry
+                .get("history.encode")
+                .tag("type", "ActionsListResponseApiDto")
+                .timer()
+                .count()
+            > encodings);
+  }
+
+  private long timerCount(String name) {
+    return meterRegistry.get(name).tag("operation", "getActions").timer().count();
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.openapi.model.ActionsListResponseApiDto;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class StreamingIntegrationTest {
+
+  @Autowired private ApplicationContext context;
+  @Autowired private ActionsRepository actionsRepository;
+
+  private WebTestClient webTestClient;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.streaming.min-page-size", () -> "2");
+    registry.add("history.streaming.fetch-size", () -> "1");
+  }
+
+  @BeforeEach
+  void setup() {
+    webTestClient =
+        WebTestClient.bindToApplicationContext(context)
+            .apply(SecurityMockServerConfigurers.springSecurity())
+            .configureClient()
+            .build();
+    actionsRepository.truncateTable();
+  }
+
+  @Test
+  void thatLargePagesAreStreamed() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.saveAll(
+        List.of(
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "a", "1", "SO", 0, 1, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "b", "2", "SDC", 0, 2, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Deletion", "delete", "c", "3", "SO", 0, 3, 0, "user", createdAt),
+            ActionFixtures.generateActionsDao(
+                "Instantiation", "create", "d", "4", "SO", 0, 4, 0, "other", createdAt)));
+
+    final var userActions = getActions("/v1/actions/user?pageSize=10");
+    assertEquals(3, userActions.getTotalCount());
+    assertEquals(3, userActions.getActionsList().size());
+    assertEquals(
+        createdAt.minusMinutes(1), userActions.getActionsList().get(0).getActionCreatedAt());
+
+    assertEquals(2, getActions("/v1/actions?pageSize=2&page=2").getTotalCount());
+    assertEquals(0, getActions("/v1/actions?pageSize=2&page=3").getTotalCount());
+    assertEquals(1, getActions("/v1/actions/user?pageSize=10&match=type:Deletion").getTotalCount());
+  }
+
+  @Test
+  void thatStreamedPayloadsAreProjected() {
+    final var createdAt = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS);
+    actionsRepository.save(
+        ActionFixtures.generateActionsDao(
+            "Instantiation", "create", "a", "1", "SO", 0, 1, 0, "user", createdAt));
+
+    final var response = getActions("/v1/actions/user?pageSize=10&fields=/type");
+
+    assertEquals(1, response.getTotalCount());
+    assertEquals(Map.of("/type", "Instantiation"), response.getActionsList().get(0).getAction());
+  }
+
+  @Test
+  void thatInvalidStreamedQueriesAreRejected() {
+    webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri("/v1/actions/user?pageSize=10&match=message:a")
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
+  private ActionsListResponseApiDto getActions(String uri) {
+    return webTestClient
+        .mutateWith(SecurityMockServerConfigurers.mockJwt().jwt(jwt -> jwt.claim("sub", "user")))
+        .get()
+        .uri(uri)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody(ActionsListResponseApiDto.class)
+        .returnResult()
+        .getResponseBody();
+  }
+}
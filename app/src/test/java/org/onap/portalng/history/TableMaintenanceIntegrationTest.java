@@ -0,0 +1,125 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.actions.ActionFixtures;
+import org.onap.portalng.history.repository.ActionsRepository;
+import org.onap.portalng.history.services.TableMaintenanceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class TableMaintenanceIntegrationTest {
+
+  @Autowired private ActionsRepository actionsRepository;
+  @Autowired private TableMaintenanceService tableMaintenanceService;
+  @Autowired private MeterRegistry meterRegistry;
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("history.maintenance.enabled", () -> "true");
+    registry.add("history.maintenance.min-dead-tuples", () -> "1000");
+    registry.add("history.maintenance.dead-tuple-ratio", () -> "0.2");
+  }
+
+  @BeforeEach
+  void setup() {
+    actionsRepository.truncateTable();
+    actionsRepository.saveAll(
+        ActionFixtures.actionsDaoList(
+            10, "user", OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS)));
+  }
+
+  @Test
+  void thatTableIsNotVacuumedBelowTheThresholds() {
+    final var vacuumRuns = vacuumRuns();
+
+    assertFalse(tableMaintenanceService.afterRetention(0).block());
+
+    assertEquals(vacuumRuns, vacuumRuns());
+    // the statistics are refreshed nevertheless
+    assertTrue(
+        meterRegistry.get("history.db.table.size").tag("table", "actions").gauge().value() > 0);
+  }
+
+  @Test
+  void thatTableIsVacuumedOnceTheDeletedRowsCrossTheThresholds() {
+    final var vacuumRuns = vacuumRuns();
+
+    // the deleted rows count as dead tuples, the statistics collector reports them with a delay
+    assertTrue(tableMaintenanceService.afterRetention(5000).block());
+
+    assertEquals(vacuumRuns + 1, vacuumRuns());
+    final var indexSizes =
+        meterRegistry.get("history.db.index.size").tag("table", "actions").gauges();
+    assertFalse(indexSizes.isEmpty());
+    indexSizes.forEach(gauge -> assertTrue(gauge.value() > 0));
+    meterRegistry
+        .get("history.db.index.bloat.ratio")
+        .tag("table", "actions")
+        .gauges()
+        .forEach(gauge -> assertTrue(gauge.value() >= 0 && gauge.value() < 1));
+  }
+
+  @Test
+  void thatStatisticsAreRefreshedBetweenRetentionRuns() {
+    tableMaintenanceService.refresh().block();
+
+    final var indexes =
+        meterRegistry
+            .get("history.db.index.size")
+            .tag("table", "actions")
+            .gauges()
+            .stream()
+            .map(gauge -> gauge.getId().getTag("index"))
+            .toList();
+    assertTrue(indexes.contains("idx_actions_search_vector"));
+    // the bloat estimate only holds for btree indexes
+    final var estimated =
+        meterRegistry
+            .get("history.db.index.bloat.ratio")
+            .tag("table", "actions")
+            .gauges()
+            .stream()
+            .map(gauge -> gauge.getId().getTag("index"))
+            .toList();
+    assertTrue(estimated.contains("idx_actions_created_at"));
+    assertFalse(estimated.contains("idx_actions_search_vector"));
+    assertFalse(estimated.contains("idx_actions_action_path_ops"));
+  }
+
+  private double vacuumRuns() {
+    return meterRegistry.get("history.db.vacuum.runs").counter().count();
+  }
+}
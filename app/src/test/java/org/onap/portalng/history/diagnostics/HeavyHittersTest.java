@@ -0,0 +1,113 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.configuration.HistoryConfig;
+
+class HeavyHittersTest {
+
+  private final AtomicLong now = new AtomicLong(Duration.ofDays(1).toMillis());
+  private final HeavyHitters heavyHitters =
+      new HeavyHitters(
+          new HistoryConfig.HeavyHitters(true, Duration.ofMinutes(1), 256, 4, 10, 5),
+          new MutableClock(now));
+
+  @Test
+  void thatTheHeavyHittersAreFoundAmongManyKeys() {
+    for (int i = 0; i < 10_000; i++) {
+      heavyHitters.add("user-" + i);
+      if (i % 10 == 0) {
+        heavyHitters.add("robot-a");
+      }
+      if (i % 20 == 0) {
+        heavyHitters.add("robot-b");
+      }
+    }
+
+    final var window = heavyHitters.current(2);
+    assertEquals(11_500, window.total());
+    assertEquals(
+        List.of("robot-a", "robot-b"),
+        window.top().stream().map(HeavyHitters.HeavyHitter::key).toList());
+    // the sketch never underestimates and stays within the error bound
+    final var robotA = window.top().getFirst();
+    assertTrue(robotA.count() >= 1000);
+    assertTrue(robotA.count() <= 1000 + window.errorBound());
+  }
+
+  @Test
+  void thatTheLastCompleteWindowIsReported() {
+    heavyHitters.add("robot");
+    heavyHitters.add("robot");
+    heavyHitters.add("user");
+    assertNull(heavyHitters.previous(5));
+
+    now.addAndGet(Duration.ofMinutes(1).toMillis());
+    heavyHitters.add("user");
+
+    final var previous = heavyHitters.previous(5);
+    assertEquals(3, previous.total());
+    assertEquals("robot", previous.top().getFirst().key());
+    assertEquals(2, previous.top().getFirst().count());
+    assertEquals(1, heavyHitters.current(5).total());
+    assertEquals(4, heavyHitters.requests());
+
+    // a window without requests leaves nothing to report
+    now.addAndGet(Duration.ofMinutes(2).toMillis());
+    assertNull(heavyHitters.previous(5));
+  }
+
+  private static final class MutableClock extends Clock {
+    private final AtomicLong millis;
+
+    private MutableClock(AtomicLong millis) {
+      this.millis = millis;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return Instant.ofEpochMilli(millis.get());
+    }
+  }
+}
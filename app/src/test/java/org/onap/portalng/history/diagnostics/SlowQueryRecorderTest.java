@@ -0,0 +1,104 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.configuration.HistoryConfig;
+
+class SlowQueryRecorderTest {
+
+  private static final long SLOW = Duration.ofMillis(200).toNanos();
+
+  private final SlowQueryRecorder recorder =
+      new SlowQueryRecorder(
+          new HistoryConfig.SlowQueries(
+              true,
+              Duration.ofMillis(100),
+              2,
+              2,
+              5,
+              Duration.ofMinutes(1),
+              Duration.ofMinutes(5),
+              Duration.ofSeconds(5)));
+
+  @Test
+  void thatStatementsAreNormalized() {
+    assertEquals(
+        "select * from actions where user_id = ? and action_id IN (?...) and x = ?",
+        SlowQueryRecorder.normalize(
+            "select *\n  from actions where user_id = 'o''neil' and action_id in (?, ?,?)"
+                + " and x = 42"));
+    assertEquals("select a1.x from t1 a1", SlowQueryRecorder.normalize("select a1.x from t1 a1"));
+  }
+
+  @Test
+  void thatFastStatementsAreIgnoredAndTheRingIsBounded() {
+    recorder.record("select 1", List.of(), Duration.ofMillis(5).toNanos());
+    recorder.record("select * from actions where user_id = ?", List.of("a"), SLOW);
+    recorder.record("select * from actions where user_id = ?", List.of("b"), SLOW);
+    recorder.record("delete from actions where user_id = ?", List.of("c"), SLOW);
+
+    final var recent = recorder.recent();
+    assertEquals(2, recent.size());
+    assertEquals("delete from actions where user_id = ?", recent.getFirst().sql());
+    assertEquals(List.of("String"), recent.getFirst().parameters());
+    assertEquals(2, recorder.top(10).size());
+    assertEquals(2, recorder.top(10).getFirst().count());
+  }
+
+  @Test
+  void thatOnlySelectStatementsAreExplained() {
+    recorder.record("delete from actions where user_id = ?", List.of("c"), 3 * SLOW);
+    recorder.record("select * from actions where user_id = ?", List.of("a"), SLOW);
+
+    final var explainable = recorder.explainable(5, Duration.ofMinutes(5));
+    assertEquals("select * from actions where user_id = ?", explainable.sql());
+    assertEquals(List.of("a"), explainable.parameters());
+
+    recorder.explained(explainable.key(), List.of("Seq Scan on actions  (cost=0.00..1.01)"));
+    assertNull(recorder.explainable(5, Duration.ofMinutes(5)));
+    final var plan = recorder.top(10).get(1).plan();
+    assertNotNull(plan);
+    assertTrue(plan.sequentialScan());
+  }
+
+  @Test
+  void thatLiteralsOfPlanConditionsAreScrubbed() {
+    assertEquals(
+        "        Index Cond: ((user_id = '?'::text) AND (repeat_count > ?))",
+        ExplainPlanCollector.scrub(
+            "        Index Cond: ((user_id = 'o''neil'::text) AND (repeat_count > 42))"));
+    assertEquals(
+        "  ->  Index Scan using idx_actions on actions a1  (cost=0.28..8.30 rows=1 width=72)",
+        ExplainPlanCollector.scrub(
+            "  ->  Index Scan using idx_actions on actions a1  (cost=0.28..8.30 rows=1 width=72)"));
+    assertEquals(
+        "  Rows Removed by Filter: 12", ExplainPlanCollector.scrub("  Rows Removed by Filter: 12"));
+  }
+}
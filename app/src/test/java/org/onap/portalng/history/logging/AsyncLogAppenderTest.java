@@ -0,0 +1,123 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AsyncLogAppenderTest {
+
+  private final LoggerContext loggerContext = new LoggerContext();
+  private final Logger logger = loggerContext.getLogger("test");
+
+  @Test
+  void thatEventsAreDroppedByLevelInsteadOfBlocking() throws InterruptedException {
+    final var delegate = new BlockingAppender();
+    delegate.setContext(loggerContext);
+    delegate.start();
+    final var appender =
+        new AsyncLogAppender(
+            List.of(delegate), new LoggerProperties.Async(true, 4, 2, org.slf4j.event.Level.INFO));
+    appender.setContext(loggerContext);
+    appender.start();
+
+    // the writer takes the first event and blocks, the others stay in the queue
+    appender.doAppend(event(Level.WARN, "taken"));
+    assertTrue(delegate.taken.await(5, TimeUnit.SECONDS));
+
+    appender.doAppend(event(Level.INFO, "queued 1"));
+    appender.doAppend(event(Level.INFO, "queued 2"));
+    appender.doAppend(event(Level.INFO, "queued 3"));
+    // one slot left, below the discarding threshold
+    appender.doAppend(event(Level.INFO, "dropped"));
+    appender.doAppend(event(Level.WARN, "queued 4"));
+    // the queue is full
+    appender.doAppend(event(Level.ERROR, "dropped"));
+
+    assertEquals(1, appender.getDropped(org.slf4j.event.Level.INFO));
+    assertEquals(1, appender.getDropped(org.slf4j.event.Level.ERROR));
+    assertEquals(0, appender.getDropped(org.slf4j.event.Level.WARN));
+    assertEquals(4, appender.getQueueSize());
+
+    delegate.release.countDown();
+    appender.stop();
+
+    assertEquals(
+        List.of("taken", "queued 1", "queued 2", "queued 3", "queued 4"),
+        delegate.events.stream().map(ILoggingEvent::getMessage).toList());
+  }
+
+  @Test
+  void thatSharedDropCountersOutliveTheAppender() throws InterruptedException {
+    final var dropped = AsyncLogAppender.dropCounters();
+    final var delegate = new BlockingAppender();
+    delegate.setContext(loggerContext);
+    delegate.start();
+    final var async = new LoggerProperties.Async(true, 1, 0, org.slf4j.event.Level.INFO);
+    final var appender = new AsyncLogAppender(List.of(delegate), async, dropped);
+    appender.setContext(loggerContext);
+    appender.start();
+
+    appender.doAppend(event(Level.INFO, "taken"));
+    assertTrue(delegate.taken.await(5, TimeUnit.SECONDS));
+    appender.doAppend(event(Level.INFO, "queued"));
+    appender.doAppend(event(Level.INFO, "dropped"));
+    delegate.release.countDown();
+    appender.stop();
+
+    final var restarted = new AsyncLogAppender(List.of(delegate), async, dropped);
+    assertEquals(1, restarted.getDropped(org.slf4j.event.Level.INFO));
+  }
+
+  private ILoggingEvent event(Level level, String message) {
+    return new LoggingEvent(Logger.FQCN, logger, level, message, null, null);
+  }
+
+  private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+    private final CountDownLatch taken = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<ILoggingEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    protected void append(ILoggingEvent event) {
+      events.add(event);
+      taken.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ *
+ * Copyright (c) 2022. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.slf4j.event.KeyValuePair;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+/** The request log fields are key/value pairs of the logging event, not MDC entries. */
+class LoggingHelperTest {
+
+  private static final String TRACE_ID = "463ac35c9f6413ad48485a3953bb6124";
+
+  private final LoggerContext loggerContext = new LoggerContext();
+  private final Logger logger = loggerContext.getLogger("test");
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  @BeforeEach
+  void setup() {
+    appender.setContext(loggerContext);
+    appender.start();
+    logger.addAppender(appender);
+    logger.setLevel(Level.INFO);
+  }
+
+  @Test
+  void thatFinishedRequestsAreLoggedWithTheirFields() {
+    final var exchange = exchange(HttpStatus.OK);
+
+    LoggingHelper.finished(logger, TRACE_ID, exchange, Duration.ofMillis(42).toNanos(), null, null);
+
+    final var event = appender.list.get(0);
+    assertEquals(Level.INFO, event.getLevel());
+    assertEquals("FINISHED", event.getFormattedMessage());
+    final var fields = fieldsOf(event);
+    assertEquals(TRACE_ID, fields.get("trace_id"));
+    assertEquals(StatusCode.COMPLETE, fields.get("status"));
+    assertEquals(200, fields.get("httpStatus"));
+    assertEquals(42L, fields.get("execution.time_ms"));
+  }
+
+  @Test
+  void thatFailedRequestsAreLoggedWithTheirFields() {
+    final var exchange = exchange(HttpStatus.INTERNAL_SERVER_ERROR);
+
+    LoggingHelper.finished(
+        logger,
+        TRACE_ID,
+        exchange,
+        Duration.ofMillis(7).toNanos(),
+        null,
+        new IllegalStateException("broken"));
+
+    final var event = appender.list.get(0);
+    assertEquals(Level.WARN, event.getLevel());
+    assertEquals("FAILED: broken", event.getFormattedMessage());
+    final var fields = fieldsOf(event);
+    assertEquals(TRACE_ID, fields.get("trace_id"));
+    assertEquals(StatusCode.ERROR, fields.get("status"));
+    assertEquals(500, fields.get("httpStatus"));
+    assertEquals(7L, fields.get("execution.time_ms"));
+  }
+
+  @Test
+  void thatTheMdcIsLeftUntouched() {
+    MDC.put("trace_id", "other");
+    try {
+      LoggingHelper.received(logger, TRACE_ID, exchange(HttpStatus.OK).getRequest());
+
+      assertEquals("other", MDC.get("trace_id"));
+      assertEquals(TRACE_ID, fieldsOf(appender.list.get(0)).get("trace_id"));
+    } finally {
+      MDC.remove("trace_id");
+    }
+  }
+
+  private static MockServerWebExchange exchange(HttpStatus status) {
+    final var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/actions/user"));
+    exchange.getResponse().setStatusCode(status);
+    return exchange;
+  }
+
+  private static Map<String, Object> fieldsOf(ILoggingEvent event) {
+    final var fields = new HashMap<String, Object>();
+    for (KeyValuePair pair : event.getKeyValuePairs()) {
+      fields.put(pair.key, pair.value);
+    }
+    return fields;
+  }
+}
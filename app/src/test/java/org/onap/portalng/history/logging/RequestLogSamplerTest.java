@@ -0,0 +1,93 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.PathContainer;
+
+class RequestLogSamplerTest {
+
+  private static final long FAST = Duration.ofMillis(5).toNanos();
+  private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RequestLogSampler sampler =
+      new RequestLogSampler(
+          new LoggerProperties.Sampling(
+              true,
+              1.0,
+              Duration.ofSeconds(1),
+              List.of(
+                  new LoggerProperties.Endpoint("/v1/actions/**", 0.5),
+                  new LoggerProperties.Endpoint("/v1/export/**", 0.0))),
+          meterRegistry);
+
+  @Test
+  void thatDecisionsAreConsistentPerTraceId() {
+    final var rule = sampler.ruleFor(PathContainer.parsePath("/v1/actions/user"));
+
+    // the lower 64 bits decide, like in OpenTelemetry's ratio based sampler
+    assertTrue(sampler.sample(rule, "463ac35c9f6413ad0000000000000001"));
+    assertFalse(sampler.sample(rule, "463ac35c9f6413ad7fffffffffffff00"));
+    for (int i = 0; i < 10; i++) {
+      assertTrue(sampler.sample(rule, "463ac35c9f6413ad0000000000000001"));
+    }
+  }
+
+  @Test
+  void thatFailedAndSlowRequestsAreAlwaysLogged() {
+    final var rule = sampler.ruleFor(PathContainer.parsePath("/v1/export/actions"));
+    final var traceId = "463ac35c9f6413ad48485a3953bb6124";
+
+    assertFalse(sampler.sample(rule, traceId));
+    assertFalse(sampler.keep(rule, false, false, FAST));
+    assertTrue(sampler.keep(rule, false, true, FAST));
+    assertTrue(sampler.keep(rule, false, false, SLOW));
+
+    assertEquals(1, decisions("/v1/export/**", "dropped"));
+    assertEquals(2, decisions("/v1/export/**", "kept"));
+  }
+
+  @Test
+  void thatOtherPathsUseTheDefaultRate() {
+    final var rule = sampler.ruleFor(PathContainer.parsePath("/v1/search"));
+
+    assertTrue(sampler.sample(rule, "REQUEST_ID_IS_NOT_SET"));
+    assertTrue(sampler.keep(rule, true, false, FAST));
+    assertEquals(1, decisions("default", "sampled"));
+  }
+
+  private double decisions(String endpoint, String decision) {
+    return meterRegistry
+        .get(RequestLogSampler.DECISIONS_METRIC)
+        .tags("endpoint", endpoint, "decision", decision)
+        .counter()
+        .count();
+  }
+}
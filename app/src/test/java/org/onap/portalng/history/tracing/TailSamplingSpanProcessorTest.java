@@ -0,0 +1,157 @@
+/*
+ *
+ * Copyright (c) 2026. Deutsche Telekom AG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ *
+ */
+
+package org.onap.portalng.history.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.onap.portalng.history.configuration.HistoryConfig;
+
+class TailSamplingSpanProcessorTest {
+
+  private final List<SpanData> exported = new CopyOnWriteArrayList<>();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private SdkTracerProvider tracerProvider;
+  private TailSamplingSpanProcessor processor;
+
+  @AfterEach
+  void shutdown() {
+    tracerProvider.shutdown();
+  }
+
+  @Test
+  void thatFastTracesAreDropped() {
+    final var tracer = tracer(0.0, 100);
+
+    trace(tracer, Duration.ZERO, false);
+    processor.forceFlush();
+
+    assertTrue(exported.isEmpty());
+    assertEquals(1, decisions("dropped"));
+  }
+
+  @Test
+  void thatFailedAndSlowTracesAreKept() {
+    final var tracer = tracer(0.0, 100);
+
+    trace(tracer, Duration.ZERO, true);
+    trace(tracer, Duration.ofSeconds(2), false);
+    processor.forceFlush();
+
+    assertEquals(4, exported.size());
+    assertEquals(2, decisions("kept"));
+  }
+
+  @Test
+  void thatKeptTracesAreRateLimited() {
+    final var tracer = tracer(0.0, 3);
+
+    trace(tracer, Duration.ZERO, true);
+    trace(tracer, Duration.ZERO, true);
+    processor.forceFlush();
+
+    assertEquals(2, exported.size());
+    assertEquals(1, decisions("dropped"));
+  }
+
+  @Test
+  void thatSampledTracesAreLeftToTheBatchProcessor() {
+    final var tracer = tracer(1.0, 100);
+
+    trace(tracer, Duration.ZERO, true);
+    processor.forceFlush();
+
+    assertTrue(exported.isEmpty());
+    assertEquals(0, decisions("kept"));
+  }
+
+  private Tracer tracer(double probability, int maxSpansPerSecond) {
+    processor =
+        new TailSamplingSpanProcessor(
+            new CollectingExporter(),
+            new SpanRateLimiter(maxSpansPerSecond, meterRegistry),
+            new HistoryConfig.Tracing(
+                true,
+                Duration.ofSeconds(1),
+                Duration.ofSeconds(30),
+                100,
+                maxSpansPerSecond,
+                Duration.ofHours(1)),
+            meterRegistry);
+    tracerProvider =
+        SdkTracerProvider.builder()
+            .setSampler(new AdaptiveSampler(probability))
+            .addSpanProcessor(processor)
+            .build();
+    return tracerProvider.get("test");
+  }
+
+  /** A root span with one child span. */
+  private void trace(Tracer tracer, Duration duration, boolean failed) {
+    final Span root =
+        tracer.spanBuilder("root").setStartTimestamp(Instant.now().minus(duration)).startSpan();
+    final Span child = tracer.spanBuilder("child").setParent(Context.root().with(root)).startSpan();
+    if (failed) {
+      child.setStatus(StatusCode.ERROR);
+    }
+    child.end();
+    root.end();
+  }
+
+  private double decisions(String decision) {
+    return meterRegistry.get("history.tracing.traces").tag("decision", decision).counter().count();
+  }
+
+  private class CollectingExporter implements SpanExporter {
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+      exported.addAll(spans);
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+      return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+      return CompletableResultCode.ofSuccess();
+    }
+  }
+}